@@ -0,0 +1,80 @@
+package com.quickmart.app;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic catalogs and scratch directories shared by the benchmarks
+ * 
+ * ASSUMPTIONS:
+ * - Product names are "Product NNNNNNN" so they are unique and sort by index
+ * - Stock is large enough that no benchmark runs out of it
+ * - Even products are taxable, odd products are tax-exempt
+ * - Generated inventory files mix European ($1,99) and US ($1.99) price formats
+ */
+final class BenchmarkData {
+	static final int LARGE_STOCK = Integer.MAX_VALUE / 2;
+	
+	private BenchmarkData() {
+	}
+	
+	/**
+	 * Builds in-memory items for cart benchmarks
+	 */
+	static List<Item> items(int count) {
+		List<Item> items = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			long regularCents = 100 + (i % 900);
+			items.add(new Item(productName(i), LARGE_STOCK, regularCents, regularCents - 10, i % 2 == 0));
+		}
+		return items;
+	}
+	
+	/**
+	 * Writes an inventory file with the given number of products
+	 */
+	static File writeInventory(File directory, int count, int quantity) throws IOException {
+		File file = new File(directory, "inventory.txt");
+		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+			for (int i = 0; i < count; i++) {
+				int regularCents = 100 + (i % 900);
+				int memberCents = regularCents - 10;
+				char separator = i % 2 == 0 ? ',' : '.';
+				writer.println(productName(i) + ": " + quantity
+					+ ", $" + (regularCents / 100) + separator + twoDigits(regularCents % 100)
+					+ ", $" + (memberCents / 100) + separator + twoDigits(memberCents % 100)
+					+ ", " + (i % 2 == 0 ? "Taxable" : "Tax-Exempt"));
+			}
+		}
+		return file;
+	}
+	
+	/**
+	 * Creates a scratch data directory
+	 */
+	static File createTempDirectory() throws IOException {
+		return Files.createTempDirectory("quickmart-bench").toFile();
+	}
+	
+	/**
+	 * Deletes a scratch directory and everything in it
+	 */
+	static void deleteRecursively(File directory) throws IOException {
+		try (Stream<Path> paths = Files.walk(directory.toPath())) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+	
+	static String productName(int index) {
+		return String.format("Product %07d", index);
+	}
+	
+	private static String twoDigits(int value) {
+		return value < 10 ? "0" + value : String.valueOf(value);
+	}
+}
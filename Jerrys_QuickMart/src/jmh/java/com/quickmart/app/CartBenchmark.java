@@ -0,0 +1,79 @@
+package com.quickmart.app;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cart hot paths: scanning items in, removing them, and reading totals
+ * 
+ * Run with "-prof gc" to see the allocation rate per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CartBenchmark {
+	@Param({"10", "100", "1000"})
+	public int cartSize;
+	
+	@Param({"false", "true"})
+	public boolean fixedPoint;
+	
+	private List<Item> items;
+	private Cart filledCart;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		items = BenchmarkData.items(cartSize);
+		filledCart = new Cart(true, fixedPoint);
+		for (Item item : items) {
+			filledCart.addItem(item, 2);
+		}
+	}
+	
+	/**
+	 * Scans every product twice (new line, then quantity bump)
+	 */
+	@Benchmark
+	public Cart addItems() {
+		Cart cart = new Cart(true, fixedPoint);
+		for (Item item : items) {
+			cart.addItem(item, 1);
+		}
+		for (Item item : items) {
+			cart.addItem(item, 1);
+		}
+		return cart;
+	}
+	
+	/**
+	 * Fills a cart, then removes every line in two steps
+	 */
+	@Benchmark
+	public Cart addThenRemoveItems() {
+		Cart cart = new Cart(true, fixedPoint);
+		for (Item item : items) {
+			cart.addItem(item, 2);
+		}
+		for (Item item : items) {
+			cart.removeItem(item.getName(), 1);
+		}
+		for (Item item : items) {
+			cart.removeItem(item.getName(), 1);
+		}
+		return cart;
+	}
+	
+	/**
+	 * Reads the total of an already filled cart, as the display after every scan does
+	 */
+	@Benchmark
+	public BigDecimal getTotal() {
+		return filledCart.getTotal();
+	}
+}
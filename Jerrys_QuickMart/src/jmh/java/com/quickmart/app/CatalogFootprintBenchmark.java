@@ -0,0 +1,89 @@
+package com.quickmart.app;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Heap footprint of the catalog: the name-keyed map of Items, the full Inventory, and the ColumnarCatalog
+ * 
+ * ASSUMPTIONS:
+ * - Each invocation loads the catalog from a generated inventory file; the score is the load time
+ * - The retained heap is the used heap after a full GC with the catalog loaded, minus the used heap
+ *   before loading it, reported per product as the "retainedBytesPerItem" counter
+ * - Used heap after System.gc() is an estimate; run with enough heap (-Xmx) for the largest catalog
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CatalogFootprintBenchmark {
+	@Param({"100000", "1000000"})
+	public int catalogSize;
+	
+	@Param({"map", "inventory", "columnar"})
+	public String backend;
+	
+	private File directory;
+	private File inventoryFile;
+	
+	/**
+	 * Retained heap of the last loaded catalog
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Footprint {
+		public long retainedBytesPerItem;
+	}
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = BenchmarkData.createTempDirectory();
+		inventoryFile = BenchmarkData.writeInventory(directory, catalogSize, 1000);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		BenchmarkData.deleteRecursively(directory);
+	}
+	
+	@Benchmark
+	public Object load(Footprint footprint) throws IOException {
+		long before = usedHeapAfterGc();
+		Object catalog;
+		switch (backend) {
+			case "map":
+				catalog = loadMap();
+				break;
+			case "inventory":
+				catalog = new Inventory(inventoryFile);
+				break;
+			default:
+				catalog = ColumnarCatalog.load(inventoryFile);
+		}
+		footprint.retainedBytesPerItem = (usedHeapAfterGc() - before) / catalogSize;
+		return catalog;
+	}
+	
+	private Map<String, Item> loadMap() throws IOException {
+		Map<String, Item> items = new HashMap<>();
+		try (Reader reader = new InputStreamReader(new FileInputStream(inventoryFile), StandardCharsets.UTF_8)) {
+			InventoryParser.parse(reader, item -> items.put(item.getName(), item), System.err::println);
+		}
+		return items;
+	}
+	
+	private static long usedHeapAfterGc() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
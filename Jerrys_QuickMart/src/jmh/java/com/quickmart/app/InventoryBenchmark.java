@@ -0,0 +1,44 @@
+package com.quickmart.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Inventory startup: reading and parsing the inventory file
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryBenchmark {
+	@Param({"1000", "100000", "1000000"})
+	public int catalogSize;
+	
+	@Param({"false", "true"})
+	public boolean parallelLoad;
+	
+	private File directory;
+	private File inventoryFile;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		System.setProperty(Inventory.PARALLEL_LOAD_PROPERTY, String.valueOf(parallelLoad));
+		directory = BenchmarkData.createTempDirectory();
+		inventoryFile = BenchmarkData.writeInventory(directory, catalogSize, 1000);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		BenchmarkData.deleteRecursively(directory);
+	}
+	
+	@Benchmark
+	public Inventory load() {
+		return new Inventory(inventoryFile);
+	}
+}
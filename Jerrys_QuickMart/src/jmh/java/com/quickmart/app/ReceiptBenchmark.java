@@ -0,0 +1,36 @@
+package com.quickmart.app;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Receipt rendering for carts of different sizes
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReceiptBenchmark {
+	@Param({"5", "50"})
+	public int lines;
+	
+	private Receipt receipt;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		Cart cart = new Cart(true);
+		for (Item item : BenchmarkData.items(lines)) {
+			cart.addItem(item, 3);
+		}
+		receipt = new Receipt(1, cart, cart.getTotal().add(BigDecimal.TEN));
+	}
+	
+	@Benchmark
+	public String generateReceiptContent() {
+		return receipt.generateReceiptContent();
+	}
+}
@@ -0,0 +1,60 @@
+package com.quickmart.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * End-to-end checkout: payment validation, numbering, inventory update and receipt persistence
+ * 
+ * Runs against a scratch data directory (quickmart.data.dir) so the real inventory,
+ * transaction counter and receipts are never touched.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionBenchmark {
+	private static final int ITEMS_PER_CART = 5;
+	
+	@Param({"100", "10000"})
+	public int catalogSize;
+	
+	private File directory;
+	private Inventory inventory;
+	private List<Item> cartItems;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = BenchmarkData.createTempDirectory();
+		System.setProperty(DataFiles.DATA_DIR_PROPERTY, directory.getAbsolutePath());
+		BenchmarkData.writeInventory(directory, catalogSize, BenchmarkData.LARGE_STOCK);
+		inventory = new Inventory();
+		cartItems = new ArrayList<>();
+		for (int i = 0; i < ITEMS_PER_CART; i++) {
+			cartItems.add(inventory.getItem(BenchmarkData.productName(i)));
+		}
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException, InterruptedException {
+		TransactionManager.flushReceipts();
+		BenchmarkData.deleteRecursively(directory);
+	}
+	
+	@Benchmark
+	public Receipt processTransaction() {
+		Cart cart = new Cart(false);
+		for (Item item : cartItems) {
+			cart.addItem(item, 1);
+		}
+		return TransactionManager.processTransaction(cart, cart.getTotal().add(BigDecimal.ONE), inventory);
+	}
+}
@@ -1,178 +1,326 @@
-package com.quickmart.app;
-
-import java.math.BigDecimal;
-import java.util.*;
-
-/**
- * Manages the shopping cart
- * 
- * ASSUMPTIONS:
- * - Cart is associated with a single customer type (member or regular)
- * - Customer type cannot be changed after cart creation
- * - Items in cart are unique by name (no duplicate items)
- * - Quantities are always positive integers
- * - Stock validation is performed before adding items
- * - Tax calculation is 6.5% for taxable items only
- * - Member prices are always lower than or equal to regular prices
- * - All monetary calculations use BigDecimal for precision
- * - Cart can be empty (no minimum purchase requirement)
- * - Cart is cleared after each transaction completion
- * - Inventory is updated immediately after purchase
- * - Member savings are calculated as difference between regular and member prices
- */
-public class Cart {
-	private List<CartItem> items;
-	private boolean isMember;
-	
-	public Cart(boolean isMember) {
-		this.items = new ArrayList<>();
-		this.isMember = isMember;
-	}
-	
-	/**
-	 * Adds an item to the cart
-	 */
-	public boolean addItem(Item item, int quantity) {
-		if (!item.hasStock(quantity)) {
-			return false;
-		}
-		
-		// Check if item already exists in cart
-		for (CartItem cartItem : items) {
-			if (cartItem.getItem().getName().equals(item.getName())) {
-				// Update quantity if there's enough stock
-				int newQuantity = cartItem.getQuantity() + quantity;
-				if (item.hasStock(newQuantity)) {
-					// Replace item with new quantity
-					items.remove(cartItem);
-					items.add(new CartItem(item, newQuantity, isMember));
-					return true;
-				}
-				return false;
-			}
-		}
-		
-		// Add new item
-		items.add(new CartItem(item, quantity, isMember));
-		return true;
-	}
-	
-	/**
-	 * Removes an item from the cart
-	 */
-	public boolean removeItem(String itemName, int quantity) {
-		for (int i = 0; i < items.size(); i++) {
-			CartItem cartItem = items.get(i);
-			if (cartItem.getItem().getName().equals(itemName)) {
-				if (quantity >= cartItem.getQuantity()) {
-					// Remove completely
-					items.remove(i);
-				} else {
-					// Reduce quantity
-					items.set(i, new CartItem(cartItem.getItem(), 
-						cartItem.getQuantity() - quantity, isMember));
-				}
-				return true;
-			}
-		}
-		return false;
-	}
-	
-	/**
-	 * Clears the cart
-	 */
-	public void clear() {
-		items.clear();
-	}
-	
-	/**
-	 * Gets the subtotal
-	 */
-	public BigDecimal getSubtotal() {
-		return items.stream()
-			.map(CartItem::getSubtotal)
-			.reduce(BigDecimal.ZERO, BigDecimal::add);
-	}
-	
-	/**
-	 * Gets the total tax
-	 */
-	public BigDecimal getTotalTax() {
-		return items.stream()
-			.map(CartItem::getTax)
-			.reduce(BigDecimal.ZERO, BigDecimal::add);
-	}
-	
-	/**
-	 * Gets the total amount
-	 */
-	public BigDecimal getTotal() {
-		return getSubtotal().add(getTotalTax());
-	}
-	
-	/**
-	 * Gets the total member savings
-	 */
-	public BigDecimal getTotalMemberSavings() {
-		if (!isMember) return BigDecimal.ZERO;
-		return items.stream()
-			.map(CartItem::getMemberSavings)
-			.reduce(BigDecimal.ZERO, BigDecimal::add);
-	}
-	
-	/**
-	 * Gets the total number of items
-	 */
-	public int getTotalItems() {
-		return items.stream()
-			.mapToInt(CartItem::getQuantity)
-			.sum();
-	}
-	
-	/**
-	 * Gets all items in the cart
-	 */
-	public List<CartItem> getItems() {
-		return new ArrayList<>(items);
-	}
-	
-	/**
-	 * Checks if the cart is empty
-	 */
-	public boolean isEmpty() {
-		return items.isEmpty();
-	}
-	
-	/**
-	 * Displays the cart contents
-	 */
-	public void display() {
-		if (isEmpty()) {
-			System.out.println("The cart is empty.");
-			return;
-		}
-		
-		System.out.println("\n=== SHOPPING CART ===");
-		for (CartItem item : items) {
-			System.out.println(item.toString());
-		}
-		System.out.printf("Subtotal: $%.2f%n", getSubtotal());
-		System.out.printf("Tax: $%.2f%n", getTotalTax());
-		System.out.printf("Total: $%.2f%n", getTotal());
-		if (isMember) {
-			System.out.printf("Member savings: $%.2f%n", getTotalMemberSavings());
-		}
-		System.out.println();
-	}
-	
-	/**
-	 * Updates inventory after purchase
-	 */
-	public void updateInventory(Inventory inventory) {
-		for (CartItem cartItem : items) {
-			Item item = cartItem.getItem();
-			item.reduceStock(cartItem.getQuantity());
-			inventory.updateItemStock(item.getName(), item.getQuantity());
-		}
-	}
+package com.quickmart.app;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Manages the shopping cart
+ * 
+ * ASSUMPTIONS:
+ * - Cart is associated with a single customer type (member or regular)
+ * - Customer type cannot be changed after cart creation
+ * - Items in cart are unique by name (no duplicate items)
+ * - Quantities are always positive integers
+ * - Stock validation is performed before adding items
+ * - A cart created with an Inventory holds the stock of its lines (see StockReservations);
+ *   holds are released on remove/clear and consumed at checkout
+ * - Tax calculation is 6.5% for taxable items only
+ * - Member prices are always lower than or equal to regular prices
+ * - All monetary calculations use BigDecimal for precision, unless the cart is in fixed-point mode
+ * - In fixed-point mode amounts are long cents and tax is rounded half-up on the taxable subtotal
+ * - Cart can be empty (no minimum purchase requirement)
+ * - Cart is cleared after each transaction completion
+ * - Inventory is updated immediately after purchase
+ * - Member savings are calculated as difference between regular and member prices
+ */
+public class Cart {
+	// Insertion-ordered index by item name: O(1) lookups, iteration in scan order
+	private Map<String, CartItem> items;
+	private boolean isMember;
+	private boolean fixedPoint;
+	// Stock holds of an inventory-backed cart, null when the cart doesn't reserve stock
+	private StockReservations reservations;
+	
+	// Running totals, adjusted on every add/remove/clear so reads are O(1)
+	private BigDecimal subtotal = BigDecimal.ZERO;
+	private BigDecimal totalTax = BigDecimal.ZERO;
+	private BigDecimal totalMemberSavings = BigDecimal.ZERO;
+	private int totalItems;
+	
+	// Running totals in cents (no allocation per scan)
+	private long subtotalCents;
+	private long taxableSubtotalCents;
+	private long memberSavingsCents;
+	
+	public Cart(boolean isMember) {
+		this(isMember, false);
+	}
+	
+	/**
+	 * Creates a cart, optionally using the long-cents money engine for totals
+	 */
+	public Cart(boolean isMember, boolean fixedPoint) {
+		this(isMember, fixedPoint, null);
+	}
+	
+	/**
+	 * Creates a cart that holds stock in the given inventory while items are in the cart
+	 */
+	public Cart(boolean isMember, boolean fixedPoint, Inventory inventory) {
+		this.items = new LinkedHashMap<>();
+		this.isMember = isMember;
+		this.fixedPoint = fixedPoint;
+		this.reservations = inventory == null ? null : inventory.getReservations();
+	}
+	
+	/**
+	 * Adds an item to the cart
+	 */
+	public boolean addItem(Item item, int quantity) {
+		if (!item.hasStock(quantity)) {
+			return false;
+		}
+		
+		// Check if item already exists in cart
+		CartItem cartItem = items.get(item.getName());
+		if (cartItem != null) {
+			// Update quantity if there's enough stock
+			int newQuantity = cartItem.getQuantity() + quantity;
+			if (reservations != null ? reserve(cartItem, newQuantity) : item.hasStock(newQuantity)) {
+				cartItem.setQuantity(newQuantity);
+				applyQuantityChange(cartItem, quantity);
+				return true;
+			}
+			return false;
+		}
+		
+		// Add new item
+		cartItem = new CartItem(item, quantity, isMember);
+		if (reservations != null && !reserve(cartItem, quantity)) {
+			return false;
+		}
+		items.put(item.getName(), cartItem);
+		applyQuantityChange(cartItem, quantity);
+		return true;
+	}
+	
+	/**
+	 * Removes an item from the cart
+	 */
+	public boolean removeItem(String itemName, int quantity) {
+		CartItem cartItem = items.get(itemName);
+		if (cartItem == null) {
+			return false;
+		}
+		if (quantity >= cartItem.getQuantity()) {
+			// Remove completely
+			items.remove(itemName);
+			releaseHold(cartItem);
+			applyQuantityChange(cartItem, -cartItem.getQuantity());
+		} else {
+			// Reduce quantity
+			if (reservations != null) {
+				reserve(cartItem, cartItem.getQuantity() - quantity);
+			}
+			cartItem.setQuantity(cartItem.getQuantity() - quantity);
+			applyQuantityChange(cartItem, -quantity);
+		}
+		return true;
+	}
+	
+	/**
+	 * Places or resizes the line's stock hold
+	 */
+	private boolean reserve(CartItem cartItem, int quantity) {
+		if (cartItem.hold == null) {
+			cartItem.hold = reservations.reserve(cartItem.getItem(), quantity);
+			return cartItem.hold != null;
+		}
+		return reservations.resize(cartItem.hold, quantity);
+	}
+	
+	/**
+	 * Gives the line's held stock back
+	 */
+	private void releaseHold(CartItem cartItem) {
+		if (cartItem.hold != null) {
+			reservations.release(cartItem.hold);
+			cartItem.hold = null;
+		}
+	}
+	
+	/**
+	 * Adjusts the running totals after a line's quantity changed by the given delta
+	 */
+	private void applyQuantityChange(CartItem cartItem, int quantityDelta) {
+		if (items.isEmpty()) {
+			resetTotals();
+			return;
+		}
+		long subtotalCentsDelta = cartItem.getUnitPriceCents() * quantityDelta;
+		subtotalCents += subtotalCentsDelta;
+		if (cartItem.getItem().isTaxable()) {
+			taxableSubtotalCents += subtotalCentsDelta;
+		}
+		if (isMember) {
+			memberSavingsCents += cartItem.getItem().getMemberSavingsCents() * quantityDelta;
+		}
+		totalItems += quantityDelta;
+		if (fixedPoint) {
+			return;
+		}
+		
+		BigDecimal delta = BigDecimal.valueOf(quantityDelta);
+		BigDecimal subtotalDelta = cartItem.getUnitPrice().multiply(delta);
+		subtotal = subtotal.add(subtotalDelta);
+		if (cartItem.getItem().isTaxable()) {
+			totalTax = totalTax.add(subtotalDelta.multiply(CartItem.TAX_RATE));
+		}
+		if (isMember) {
+			totalMemberSavings = totalMemberSavings.add(cartItem.getItem().getMemberSavings().multiply(delta));
+		}
+	}
+	
+	/**
+	 * Resets the running totals to an empty cart
+	 */
+	private void resetTotals() {
+		subtotal = BigDecimal.ZERO;
+		totalTax = BigDecimal.ZERO;
+		totalMemberSavings = BigDecimal.ZERO;
+		totalItems = 0;
+		subtotalCents = 0;
+		taxableSubtotalCents = 0;
+		memberSavingsCents = 0;
+	}
+	
+	/**
+	 * Clears the cart
+	 */
+	public void clear() {
+		for (CartItem cartItem : items.values()) {
+			releaseHold(cartItem);
+		}
+		items.clear();
+		resetTotals();
+	}
+	
+	/**
+	 * Gets the subtotal
+	 */
+	public BigDecimal getSubtotal() {
+		return fixedPoint ? Money.toBigDecimal(subtotalCents) : subtotal;
+	}
+	
+	/**
+	 * Gets the total tax
+	 */
+	public BigDecimal getTotalTax() {
+		return fixedPoint ? Money.toBigDecimal(getTaxCents()) : totalTax;
+	}
+	
+	/**
+	 * Gets the total amount
+	 */
+	public BigDecimal getTotal() {
+		return fixedPoint ? Money.toBigDecimal(getTotalCents()) : subtotal.add(totalTax);
+	}
+	
+	/**
+	 * Gets the total member savings
+	 */
+	public BigDecimal getTotalMemberSavings() {
+		return fixedPoint ? Money.toBigDecimal(memberSavingsCents) : totalMemberSavings;
+	}
+	
+	/**
+	 * Gets the subtotal in cents
+	 */
+	public long getSubtotalCents() {
+		return subtotalCents;
+	}
+	
+	/**
+	 * Gets the total tax in cents, rounded half-up on the taxable subtotal
+	 */
+	public long getTaxCents() {
+		return Money.taxCents(taxableSubtotalCents);
+	}
+	
+	/**
+	 * Gets the total amount in cents
+	 */
+	public long getTotalCents() {
+		return subtotalCents + getTaxCents();
+	}
+	
+	/**
+	 * Gets the total member savings in cents
+	 */
+	public long getMemberSavingsCents() {
+		return memberSavingsCents;
+	}
+	
+	/**
+	 * Gets the total number of items
+	 */
+	public int getTotalItems() {
+		return totalItems;
+	}
+	
+	/**
+	 * Checks if the cart belongs to a rewards member
+	 */
+	public boolean isMember() {
+		return isMember;
+	}
+	
+	/**
+	 * Checks if the cart uses the long-cents money engine
+	 */
+	public boolean isFixedPoint() {
+		return fixedPoint;
+	}
+	
+	/**
+	 * Gets all items in the cart
+	 */
+	public List<CartItem> getItems() {
+		return new ArrayList<>(items.values());
+	}
+	
+	/**
+	 * Gets the quantity of an item in the cart, or 0 if it isn't in the cart
+	 */
+	public int getItemQuantity(String itemName) {
+		CartItem cartItem = items.get(itemName);
+		return cartItem == null ? 0 : cartItem.getQuantity();
+	}
+	
+	/**
+	 * Checks if the cart is empty
+	 */
+	public boolean isEmpty() {
+		return items.isEmpty();
+	}
+	
+	/**
+	 * Displays the cart contents
+	 */
+	public void display() {
+		if (isEmpty()) {
+			System.out.println("The cart is empty.");
+			return;
+		}
+		
+		System.out.println("\n=== SHOPPING CART ===");
+		for (CartItem item : items.values()) {
+			System.out.println(item.toString());
+		}
+		System.out.printf("Subtotal: $%.2f%n", getSubtotal());
+		System.out.printf("Tax: $%.2f%n", getTotalTax());
+		System.out.printf("Total: $%.2f%n", getTotal());
+		if (isMember) {
+			System.out.printf("Member savings: $%.2f%n", getTotalMemberSavings());
+		}
+		System.out.println();
+	}
+	
+	/**
+	 * Updates inventory after purchase
+	 * Returns false (leaving stock untouched) if another lane sold the stock first
+	 */
+	public boolean updateInventory(Inventory inventory) {
+		return inventory.commitSale(items.values());
+	}
 } 
\ No newline at end of file
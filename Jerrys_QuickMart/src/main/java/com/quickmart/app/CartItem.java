@@ -1,53 +1,86 @@
-package com.quickmart.app;
-
-import java.math.BigDecimal;
-
-/**
- * Represents an item in the shopping cart
- */
-public class CartItem {
-	private Item item;
-	private int quantity;
-	private BigDecimal unitPrice;
-	
-	public CartItem(Item item, int quantity, boolean isMember) {
-		this.item = item;
-		this.quantity = quantity;
-		this.unitPrice = item.getPrice(isMember);
-	}
-	
-	// Getters
-	public Item getItem() { return item; }
-	public int getQuantity() { return quantity; }
-	public BigDecimal getUnitPrice() { return unitPrice; }
-	
-	/**
-	 * Calculates the item subtotal
-	 */
-	public BigDecimal getSubtotal() {
-		return unitPrice.multiply(BigDecimal.valueOf(quantity));
-	}
-	
-	/**
-	 * Calculates the item tax
-	 */
-	public BigDecimal getTax() {
-		if (item.isTaxable()) {
-			return getSubtotal().multiply(BigDecimal.valueOf(0.065));
-		}
-		return BigDecimal.ZERO;
-	}
-	
-	/**
-	 * Calculates member savings
-	 */
-	public BigDecimal getMemberSavings() {
-		return item.getMemberSavings().multiply(BigDecimal.valueOf(quantity));
-	}
-	
-	@Override
-	public String toString() {
-		return String.format("%s x%d @ $%.2f = $%.2f", 
-			item.getName(), quantity, unitPrice, getSubtotal());
-	}
+package com.quickmart.app;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents an item in the shopping cart
+ */
+public class CartItem {
+	static final BigDecimal TAX_RATE = BigDecimal.valueOf(0.065);
+	
+	private Item item;
+	private int quantity;
+	private BigDecimal unitPrice;
+	private long unitPriceCents;
+	// Stock hold placed for this line when the cart reserves stock, otherwise null
+	StockReservations.Hold hold;
+	
+	public CartItem(Item item, int quantity, boolean isMember) {
+		this.item = item;
+		this.quantity = quantity;
+		this.unitPrice = item.getPrice(isMember);
+		this.unitPriceCents = item.getPriceCents(isMember);
+	}
+	
+	// Getters
+	public Item getItem() { return item; }
+	public int getQuantity() { return quantity; }
+	public BigDecimal getUnitPrice() { return unitPrice; }
+	public long getUnitPriceCents() { return unitPriceCents; }
+	
+	/**
+	 * Changes the line quantity in place (used by Cart when the same product is scanned again)
+	 */
+	void setQuantity(int quantity) { this.quantity = quantity; }
+	
+	/**
+	 * Calculates the item subtotal
+	 */
+	public BigDecimal getSubtotal() {
+		return unitPrice.multiply(BigDecimal.valueOf(quantity));
+	}
+	
+	/**
+	 * Calculates the item tax
+	 */
+	public BigDecimal getTax() {
+		if (item.isTaxable()) {
+			return getSubtotal().multiply(TAX_RATE);
+		}
+		return BigDecimal.ZERO;
+	}
+	
+	/**
+	 * Calculates member savings
+	 */
+	public BigDecimal getMemberSavings() {
+		return item.getMemberSavings().multiply(BigDecimal.valueOf(quantity));
+	}
+	
+	/**
+	 * Calculates the item subtotal in cents
+	 */
+	public long getSubtotalCents() {
+		return unitPriceCents * quantity;
+	}
+	
+	/**
+	 * Calculates the item tax in cents, rounded half-up
+	 */
+	public long getTaxCents() {
+		return item.isTaxable() ? Money.taxCents(getSubtotalCents()) : 0;
+	}
+	
+	/**
+	 * Calculates member savings in cents
+	 */
+	public long getMemberSavingsCents() {
+		return item.getMemberSavingsCents() * quantity;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%s x%d @ $%.2f = $%.2f", 
+			item.getName(), quantity, unitPrice, getSubtotal());
+	}
 } 
\ No newline at end of file
@@ -0,0 +1,315 @@
+package com.quickmart.app;
+
+import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact catalog storage for stores with millions of products: parallel primitive arrays instead of
+ * an Item object (with its String and two BigDecimals) per product
+ *
+ * ASSUMPTIONS:
+ * - Same file format as Inventory (read with InventoryParser, written with SnapshotFile), so a file
+ *   can be loaded by either one
+ * - Products are numbered 1, 2, 3... in file order like Inventory's product IDs; column slot N holds
+ *   product N (slot 0 is unused)
+ * - Columns: stock, held stock, regular and member price in cents, barcode, name hash, name offset and
+ *   a flags byte (taxable); BigDecimal prices are only made when a view is asked for one
+ * - Names live in one name table: UTF-8 bytes in a shared byte array, one entry per distinct name,
+ *   found through an open-addressing table of product IDs keyed by the name's hash
+ * - getItem/getItemById/getAllItems return flyweight views: small Item objects holding only the product
+ *   ID, made on each call, that read and write the columns, so nothing else is kept per product
+ * - Views of the same product are equal and share the same stock, but not a monitor: stock and held
+ *   stock change by compare-and-set on the column, so a change is atomic per product
+ * - A duplicate name keeps the first line's product ID with the last line's values; a barcode used
+ *   twice stays with the first product (like Inventory)
+ * - Products are added while loading, before the catalog is shared; after that lookups and stock
+ *   changes are safe from several threads
+ * - A backend for catalog-sized data sets (e.g. the distribution center); the register flow (journal,
+ *   reservations, name search) stays on Inventory
+ */
+public class ColumnarCatalog {
+	private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+	private static final byte TAXABLE = 1;
+	
+	private int size;
+	private int[] quantities;
+	private int[] reserved;
+	private long[] regularCents;
+	private long[] memberCents;
+	private long[] barcodes;
+	private byte[] flags;
+	private int[] nameHashes;
+	// Name of product N is nameBytes[nameOffsets[N] .. nameOffsets[N + 1])
+	private int[] nameOffsets;
+	private byte[] nameBytes;
+	// Open-addressing table of product IDs by name hash (0 = empty), kept at most half full
+	private int[] nameTable;
+	private final LongIntHashIndex barcodeIndex;
+	
+	public ColumnarCatalog() {
+		this(16);
+	}
+	
+	/**
+	 * Creates a catalog sized for the expected number of products
+	 */
+	public ColumnarCatalog(int expectedSize) {
+		int capacity = Math.max(16, expectedSize + 1);
+		quantities = new int[capacity];
+		reserved = new int[capacity];
+		regularCents = new long[capacity];
+		memberCents = new long[capacity];
+		barcodes = new long[capacity];
+		flags = new byte[capacity];
+		nameHashes = new int[capacity];
+		nameOffsets = new int[capacity + 1];
+		nameBytes = new byte[(int) Math.min(Integer.MAX_VALUE - 8, capacity * 16L)];
+		nameTable = new int[Integer.highestOneBit(capacity * 2 - 1) * 2];
+		barcodeIndex = new LongIntHashIndex();
+	}
+	
+	/**
+	 * Loads an inventory file; invalid lines are reported and skipped like Inventory does
+	 */
+	public static ColumnarCatalog load(File file) throws IOException {
+		ColumnarCatalog catalog = new ColumnarCatalog((int) Math.min(Integer.MAX_VALUE / 4, file.length() / 40));
+		try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+			InventoryParser.parse(reader, catalog::add, System.err::println);
+		}
+		return catalog;
+	}
+	
+	/**
+	 * Writes the catalog in the inventory file format, crash-safely (see SnapshotFile)
+	 */
+	public void save(File file) throws IOException {
+		StringBuilder content = new StringBuilder();
+		for (Item item : getAllItems()) {
+			content.append(item.toString()).append(System.lineSeparator());
+		}
+		SnapshotFile.write(file, content.toString());
+	}
+	
+	/**
+	 * Copies an item's values into the columns
+	 * Returns its product ID
+	 */
+	public int add(Item item) {
+		return add(item.getName(), item.getQuantity(), item.getRegularPriceCents(), item.getMemberPriceCents(),
+			item.isTaxable(), item.getBarcode());
+	}
+	
+	/**
+	 * Adds a product, or replaces the values of the product with the same name
+	 * Returns its product ID
+	 */
+	public int add(String name, int quantity, long regularPriceCents, long memberPriceCents, boolean isTaxable, long barcode) {
+		byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+		int hash = name.hashCode();
+		int id = findId(encoded, hash);
+		if (id == 0) {
+			if (size + 1 == quantities.length) {
+				grow(quantities.length * 2);
+			}
+			id = ++size;
+			int offset = nameOffsets[id];
+			if (offset + encoded.length > nameBytes.length) {
+				nameBytes = Arrays.copyOf(nameBytes, Math.max(nameBytes.length * 2, offset + encoded.length));
+			}
+			System.arraycopy(encoded, 0, nameBytes, offset, encoded.length);
+			nameOffsets[id + 1] = offset + encoded.length;
+			nameHashes[id] = hash;
+			if (size * 2 > nameTable.length) {
+				rehash(nameTable.length * 2);
+			}
+			insertName(id);
+		}
+		quantities[id] = quantity;
+		regularCents[id] = regularPriceCents;
+		memberCents[id] = memberPriceCents;
+		flags[id] = isTaxable ? TAXABLE : 0;
+		barcodes[id] = barcode;
+		if (barcode != 0 && !barcodeIndex.containsKey(barcode)) {
+			barcodeIndex.put(barcode, id);
+		}
+		return id;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Gets a view of the product with the given name, or null
+	 */
+	public Item getItem(String name) {
+		int id = findId(name.getBytes(StandardCharsets.UTF_8), name.hashCode());
+		return id == 0 ? null : new View(id);
+	}
+	
+	/**
+	 * Gets a view of the product with the given ID (starting at 1), or null
+	 */
+	public Item getItemById(int id) {
+		return id >= 1 && id <= size ? new View(id) : null;
+	}
+	
+	/**
+	 * Gets a view of the product with the given barcode, or null
+	 */
+	public Item getItemByBarcode(long barcode) {
+		int id = barcodeIndex.get(barcode);
+		return id == LongIntHashIndex.MISSING ? null : new View(id);
+	}
+	
+	/**
+	 * Gets views of all products in product ID order; each view is made when it is read
+	 */
+	public List<Item> getAllItems() {
+		int count = size;
+		return new AbstractList<Item>() {
+			@Override
+			public Item get(int index) {
+				if (index < 0 || index >= count) {
+					throw new IndexOutOfBoundsException("Index: " + index + ", size: " + count);
+				}
+				return new View(index + 1);
+			}
+			
+			@Override
+			public int size() {
+				return count;
+			}
+		};
+	}
+	
+	private int findId(byte[] encoded, int hash) {
+		int mask = nameTable.length - 1;
+		for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+			int id = nameTable[slot];
+			if (id == 0) {
+				return 0;
+			}
+			if (nameHashes[id] == hash && nameEquals(id, encoded)) {
+				return id;
+			}
+		}
+	}
+	
+	private boolean nameEquals(int id, byte[] encoded) {
+		int from = nameOffsets[id];
+		int to = nameOffsets[id + 1];
+		return Arrays.equals(nameBytes, from, to, encoded, 0, encoded.length);
+	}
+	
+	private String name(int id) {
+		int from = nameOffsets[id];
+		return new String(nameBytes, from, nameOffsets[id + 1] - from, StandardCharsets.UTF_8);
+	}
+	
+	private void insertName(int id) {
+		int mask = nameTable.length - 1;
+		int slot = mix(nameHashes[id]) & mask;
+		while (nameTable[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		nameTable[slot] = id;
+	}
+	
+	private void rehash(int capacity) {
+		nameTable = new int[capacity];
+		for (int id = 1; id <= size; id++) {
+			insertName(id);
+		}
+	}
+	
+	private void grow(int capacity) {
+		quantities = Arrays.copyOf(quantities, capacity);
+		reserved = Arrays.copyOf(reserved, capacity);
+		regularCents = Arrays.copyOf(regularCents, capacity);
+		memberCents = Arrays.copyOf(memberCents, capacity);
+		barcodes = Arrays.copyOf(barcodes, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+		nameHashes = Arrays.copyOf(nameHashes, capacity);
+		nameOffsets = Arrays.copyOf(nameOffsets, capacity + 1);
+	}
+	
+	private static int mix(int hash) {
+		hash *= 0x9e3779b9;
+		return hash ^ (hash >>> 16);
+	}
+	
+	/**
+	 * Flyweight Item over one product's column slots
+	 */
+	private final class View extends Item {
+		View(int id) {
+			super(id);
+		}
+		
+		@Override public String getName() { return name(getId()); }
+		@Override public int getQuantity() { return (int) INTS.getVolatile(quantities, getId()); }
+		@Override public int getReservedQuantity() { return (int) INTS.getVolatile(reserved, getId()); }
+		@Override public BigDecimal getRegularPrice() { return Money.toBigDecimal(regularCents[getId()]); }
+		@Override public BigDecimal getMemberPrice() { return Money.toBigDecimal(memberCents[getId()]); }
+		@Override public boolean isTaxable() { return (flags[getId()] & TAXABLE) != 0; }
+		@Override public long getRegularPriceCents() { return regularCents[getId()]; }
+		@Override public long getMemberPriceCents() { return memberCents[getId()]; }
+		@Override public long getBarcode() { return barcodes[getId()]; }
+		
+		@Override
+		public void setQuantity(int quantity) {
+			INTS.setVolatile(quantities, getId(), quantity);
+		}
+		
+		@Override
+		void adjustReserved(int delta) {
+			int current;
+			do {
+				current = (int) INTS.getVolatile(reserved, getId());
+			} while (!INTS.compareAndSet(reserved, getId(), current, Math.max(0, current + delta)));
+		}
+		
+		@Override
+		public void reduceStock(int quantity) {
+			tryReduceStock(quantity);
+		}
+		
+		@Override
+		public boolean tryReduceStock(int quantity) {
+			int current;
+			do {
+				current = (int) INTS.getVolatile(quantities, getId());
+				if (current < quantity) {
+					return false;
+				}
+			} while (!INTS.compareAndSet(quantities, getId(), current, current - quantity));
+			return true;
+		}
+		
+		@Override
+		void restoreStock(int quantity) {
+			INTS.getAndAdd(quantities, getId(), quantity);
+		}
+		
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof View && ((View) other).getId() == getId() && ((View) other).catalog() == catalog();
+		}
+		
+		@Override
+		public int hashCode() {
+			return getId();
+		}
+		
+		private ColumnarCatalog catalog() {
+			return ColumnarCatalog.this;
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.quickmart.app;
+
+import java.io.File;
+
+/**
+ * Resolves the location of the application's data files
+ * 
+ * ASSUMPTIONS:
+ * - Data files (inventory, transaction counter, receipts) live in one directory
+ * - The directory defaults to the current working directory
+ * - The "quickmart.data.dir" system property overrides it (used by benchmarks and load tests)
+ * - The property is read on every call so it can be changed before a component starts
+ */
+public final class DataFiles {
+	public static final String DATA_DIR_PROPERTY = "quickmart.data.dir";
+	
+	private DataFiles() {
+	}
+	
+	/**
+	 * Resolves a data file name against the data directory
+	 */
+	public static File resolve(String fileName) {
+		String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+		return dataDir == null ? new File(fileName) : new File(dataDir, fileName);
+	}
+	
+	/**
+	 * Gets the data directory itself
+	 */
+	public static File directory() {
+		String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+		return new File(dataDir == null ? "." : dataDir);
+	}
+}
@@ -1,170 +1,584 @@
-package com.quickmart.app;
-
-import java.io.*;
-import java.math.BigDecimal;
-import java.util.*;
-
-/**
- * Manages product inventory from file
- * 
- * ASSUMPTIONS:
- * - Inventory file is named "inventory.txt" and located in the application root
- * - File format: "ItemName: quantity, $regularPrice, $memberPrice, TaxStatus"
- * - Prices can use either comma (European) or dot (US) as decimal separator
- * - TaxStatus must be exactly "Taxable" or "Tax-Exempt" (case-sensitive)
- * - Item names are unique and case-sensitive
- * - Quantities are non-negative integers
- * - Prices are positive decimal numbers
- * - File encoding is UTF-8
- * - Empty lines are ignored
- * - Invalid lines are logged but don't stop the loading process
- */
-public class Inventory {
-	private Map<String, Item> items;
-	private static final String INVENTORY_FILE = "inventory.txt";
-	
-	public Inventory() {
-		this.items = new HashMap<>();
-		loadInventory();
-	}
-	
-	/**
-	 * Loads inventory from file
-	 */
-	private void loadInventory() {
-		File file = new File(INVENTORY_FILE);
-		System.out.println("DEBUG: Trying to read inventory from: " + file.getAbsolutePath());
-		try {
-			BufferedReader reader = new BufferedReader(new FileReader(file));
-			String line;
-			while ((line = reader.readLine()) != null) {
-				if (!line.trim().isEmpty()) {
-					parseInventoryLine(line);
-				}
-			}
-			reader.close();
-		} catch (IOException e) {
-			System.err.println("Error loading inventory: " + e.getMessage());
-			System.err.println("DEBUG: Current working directory: " + System.getProperty("user.dir"));
-		}
-	}
-	
-	/**
-	 * Parses a line from the inventory file
-	 * Supports both comma and dot decimal formats
-	 */
-	private void parseInventoryLine(String line) {
-		try {
-			// Format: Item: quantity, $regularPrice, $memberPrice, TaxStatus
-			String[] parts = line.split(":");
-			if (parts.length != 2) {
-				System.err.println("Invalid format in line: " + line);
-				return;
-			}
-			String itemName = parts[0].trim();
-			// Split only by comma+space, not decimal commas in prices
-			String[] details = parts[1].trim().split(", ");
-			if (details.length != 4) {
-				System.err.println("Insufficient data in line: " + line);
-				return;
-			}
-			int quantity = Integer.parseInt(details[0].trim());
-			// Parse prices with flexible decimal format support
-			BigDecimal regularPrice = parsePrice(details[1].trim());
-			BigDecimal memberPrice = parsePrice(details[2].trim());
-			boolean isTaxable = details[3].trim().equals("Taxable");
-			items.put(itemName, new Item(itemName, quantity, regularPrice, memberPrice, isTaxable));
-		} catch (NumberFormatException e) {
-			System.err.println("Error in numeric format in line: " + line + " - " + e.getMessage());
-		} catch (Exception e) {
-			System.err.println("Error parsing line: " + line + " - " + e.getMessage());
-		}
-	}
-	
-	/**
-	 * Parses price string with flexible decimal format support
-	 * Accepts both comma and dot decimal separators
-	 * 
-	 * ASSUMPTIONS:
-	 * - Price string starts with "$" symbol
-	 * - If both comma and dot are present, comma is thousands separator (US format: $1,234.56)
-	 * - If only comma is present, comma is decimal separator (European format: $3,75)
-	 * - If only dot is present, dot is decimal separator (US format: $3.75)
-	 * - Price is a valid decimal number after cleaning
-	 * - No currency symbols other than "$" are expected
-	 */
-	private BigDecimal parsePrice(String priceStr) {
-		// Remove dollar sign and trim
-		String cleanPrice = priceStr.replace("$", "").trim();
-		
-		// Handle different decimal formats
-		if (cleanPrice.contains(",") && cleanPrice.contains(".")) {
-			// If both comma and dot are present, assume comma is thousands separator
-			// and dot is decimal separator (e.g., $1,234.56)
-			cleanPrice = cleanPrice.replace(",", "");
-		} else if (cleanPrice.contains(",") && !cleanPrice.contains(".")) {
-			// If only comma is present, assume it's a decimal separator (European format)
-			// Convert to standard format
-			cleanPrice = cleanPrice.replace(",", ".");
-		}
-		
-		return new BigDecimal(cleanPrice);
-	}
-	
-	/**
-	 * Saves the updated inventory to file
-	 */
-	public void saveInventory() {
-		try (PrintWriter writer = new PrintWriter(new FileWriter(INVENTORY_FILE))) {
-			for (Item item : items.values()) {
-				writer.println(item.toString());
-			}
-		} catch (IOException e) {
-			System.err.println("Error saving inventory: " + e.getMessage());
-		}
-	}
-	
-	/**
-	 * Gets an item by name
-	 */
-	public Item getItem(String name) {
-		return items.get(name);
-	}
-	
-	/**
-	 * Gets all items
-	 */
-	public Collection<Item> getAllItems() {
-		return items.values();
-	}
-	
-	/**
-	 * Checks if an item exists
-	 */
-	public boolean hasItem(String name) {
-		return items.containsKey(name);
-	}
-	
-	/**
-	 * Updates an item's stock
-	 */
-	public void updateItemStock(String itemName, int newQuantity) {
-		Item item = items.get(itemName);
-		if (item != null) {
-			item.setQuantity(newQuantity);
-		}
-	}
-	
-	/**
-	 * Displays the current inventory with product IDs
-	 */
-	public void displayInventory() {
-		System.out.println("\n=== CURRENT INVENTORY ===");
-		int id = 1;
-		for (Item item : items.values()) {
-			System.out.println(id + ". " + item.toString());
-			id++;
-		}
-		System.out.println();
-	}
+package com.quickmart.app;
+
+import java.io.*;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages product inventory from file
+ * 
+ * ASSUMPTIONS:
+ * - Inventory file is named "inventory.txt" and located in the data directory (see DataFiles)
+ * - File format: "ItemName: quantity, $regularPrice, $memberPrice, TaxStatus[, barcode]"; the UPC/EAN
+ *   barcode is optional, so files without it still load
+ * - Prices can use either comma (European) or dot (US) as decimal separator
+ * - TaxStatus must be exactly "Taxable" or "Tax-Exempt" (case-sensitive)
+ * - Item names are unique and case-sensitive
+ * - Every item has a stable product ID (1, 2, 3...) in file order; new items get the next ID and
+ *   snapshots are written in ID order, so IDs survive restarts; a duplicate name keeps the first line's ID
+ * - Looking an item up by ID is an array access (getItemById)
+ * - Scanned barcodes resolve through a primitive long-to-ID hash index (getItemByBarcode); a barcode
+ *   used by two items stays with the first one. The index is built after loading and replaced by an
+ *   updated copy when an item is added, so lanes read it without locking
+ * - The inventory can be listed a page at a time by product ID (listItems, displayInventoryPage); each
+ *   item keeps its rendered line and renders it again only after its stock changes
+ * - Item names are searchable by prefix and with typos (searchItems, see ProductSearchIndex); the index
+ *   is built after loading and updated as items are added
+ * - Quantities are non-negative integers
+ * - Prices are positive decimal numbers
+ * - File encoding is UTF-8
+ * - Empty lines are ignored
+ * - Invalid lines are logged but don't stop the loading process
+ * - Lines are parsed by InventoryParser in a single streaming pass
+ * - Files of PARALLEL_LOAD_THRESHOLD bytes or more are memory-mapped and parsed in parallel
+ *   (forced on or off with the "quickmart.inventory.parallelLoad" system property)
+ * - Sales and new products are persisted as records in "inventory.txt.journal" next to the inventory file
+ * - The journal is replayed on load and compacted into a full snapshot every COMPACT_EVERY records
+ *   (configurable with the "quickmart.inventory.compactEvery" system property)
+ * - Safe to share between lanes (threads): items live in a ConcurrentHashMap and
+ *   a cart's stock is committed all-or-nothing, one item lock at a time (see commitSale)
+ * - Open carts hold stock through StockReservations; holds expire after RESERVATION_TTL_SECONDS
+ *   ("quickmart.reservations.ttlSeconds" system property) and are consumed at checkout
+ * - Snapshots are written crash-safely with a checksum footer (see SnapshotFile)
+ * - With "quickmart.inventory.store=mapped" the live inventory is the memory-mapped record file
+ *   "inventory.txt.dat" (see MappedInventoryStore), created from the text inventory and its journal on
+ *   first use. Startup reads records instead of parsing text, sales change the stock in place (no
+ *   journal), and every process that maps the file shares the same stock counts. The text file is only
+ *   written by an explicit saveInventory (an export)
+ * - Stock held by carts is tracked per process; a sale also checks the shared stock itself, so a
+ *   product sold out by another process fails the checkout instead of overselling
+ * - A snapshot whose checksum does not match is replaced by its ".bak" copy when that one is valid
+ * - A snapshot without a checksum footer fails verification too, except an inventory file from an older
+ *   version that was never rewritten (no ".bak" yet), which is accepted with a warning
+ */
+public class Inventory {
+	private Map<String, Item> items;
+	// Items by ID - 1; grown by copying, and itemCount is published after the slot is written
+	private volatile Item[] itemsById = new Item[16];
+	private volatile int itemCount;
+	private static final String INVENTORY_FILE = "inventory.txt";
+	public static final String PARALLEL_LOAD_PROPERTY = "quickmart.inventory.parallelLoad";
+	public static final long PARALLEL_LOAD_THRESHOLD = 8L * 1024 * 1024;
+	public static final String COMPACT_EVERY_PROPERTY = "quickmart.inventory.compactEvery";
+	public static final int COMPACT_EVERY = 1000;
+	public static final String RESERVATION_TTL_PROPERTY = "quickmart.reservations.ttlSeconds";
+	public static final int RESERVATION_TTL_SECONDS = 15 * 60;
+	public static final int PAGE_SIZE = 20;
+	public static final String STORE_PROPERTY = "quickmart.inventory.store";
+	public static final String STORE_SUFFIX = ".dat";
+	private final File file;
+	private final InventoryJournal journal;
+	private final StockReservations reservations;
+	private final Set<Item> changedItems = ConcurrentHashMap.newKeySet();
+	private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+	private volatile LongIntHashIndex barcodes = new LongIntHashIndex();
+	// The memory-mapped live inventory, or null when the text file is used
+	private MappedInventoryStore store;
+	private long loadTimeNanos;
+	
+	public Inventory() {
+		this(DataFiles.resolve(INVENTORY_FILE));
+	}
+	
+	/**
+	 * Creates an inventory backed by the given file
+	 */
+	public Inventory(File file) {
+		this.items = new ConcurrentHashMap<>();
+		this.file = file;
+		this.journal = new InventoryJournal(new File(file.getPath() + ".journal"));
+		this.reservations = new StockReservations(
+			Integer.getInteger(RESERVATION_TTL_PROPERTY, RESERVATION_TTL_SECONDS), TimeUnit.SECONDS);
+		if ("mapped".equals(System.getProperty(STORE_PROPERTY))) {
+			openStore();
+		} else {
+			loadInventory();
+			replayJournal();
+		}
+		LongIntHashIndex loadedBarcodes = new LongIntHashIndex(itemCount);
+		for (Item item : getAllItems()) {
+			searchIndex.add(item.getId(), item.getName());
+			indexBarcode(loadedBarcodes, item);
+		}
+		barcodes = loadedBarcodes;
+	}
+	
+	private void replayJournal() {
+		int replayed = journal.replay(items, this::register);
+		if (replayed > 0) {
+			System.out.println("Inventory journal replayed: " + replayed + " changes");
+		}
+	}
+	
+	/**
+	 * Maps the record store next to the inventory file, creating it from the text inventory on first use
+	 * Falls back to the text inventory if the store can't be opened
+	 */
+	private void openStore() {
+		File storeFile = new File(file.getPath() + STORE_SUFFIX);
+		long startTime = System.nanoTime();
+		try {
+			if (!storeFile.exists()) {
+				loadInventory();
+				replayJournal();
+				MappedInventoryStore.create(storeFile, getAllItems());
+				System.out.println("Inventory store created: " + storeFile.getName());
+			}
+			store = MappedInventoryStore.open(storeFile);
+		} catch (IOException e) {
+			System.err.println("Error opening inventory store, using " + file.getName() + ": " + e.getMessage());
+			if (itemCount == 0) {
+				loadInventory();
+				replayJournal();
+			}
+			return;
+		}
+		// Records are in product ID order, so items loaded from text are replaced under the same IDs
+		registerStoreItems(1);
+		loadTimeNanos = System.nanoTime() - startTime;
+		System.out.printf("Inventory mapped: %d items in %d ms%n", itemCount, getLoadTimeMillis());
+	}
+	
+	private void registerStoreItems(int fromId) {
+		for (int id = fromId; id <= store.size(); id++) {
+			register(store.item(id));
+		}
+	}
+	
+	/**
+	 * Loads inventory from file
+	 */
+	private void loadInventory() {
+		System.out.println("DEBUG: Trying to read inventory from: " + file.getAbsolutePath());
+		long startTime = System.nanoTime();
+		try {
+			File source = chooseSnapshot();
+			if (useParallelLoad()) {
+				ParallelInventoryLoader.load(source, this::register, System.err::println);
+			} else {
+				try (Reader reader = new InputStreamReader(new FileInputStream(source), StandardCharsets.UTF_8)) {
+					InventoryParser.parse(reader, this::register, System.err::println);
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("Error loading inventory: " + e.getMessage());
+			System.err.println("DEBUG: Current working directory: " + System.getProperty("user.dir"));
+		}
+		loadTimeNanos = System.nanoTime() - startTime;
+		System.out.printf("Inventory loaded: %d items in %d ms%n", items.size(), getLoadTimeMillis());
+	}
+	
+	/**
+	 * Adds a loaded item under the next product ID, or in place of an earlier line with the same name
+	 */
+	private synchronized void register(Item item) {
+		Item previous = items.get(item.getName());
+		if (previous != null) {
+			item.setId(previous.getId());
+			itemsById[previous.getId() - 1] = item;
+		} else {
+			Item[] byId = itemsById;
+			if (itemCount == byId.length) {
+				byId = Arrays.copyOf(byId, byId.length * 2);
+			}
+			item.setId(itemCount + 1);
+			byId[itemCount] = item;
+			itemsById = byId;
+			itemCount++;
+		}
+		items.put(item.getName(), item);
+	}
+	
+	/**
+	 * Adds a new product under the next product ID
+	 * Returns false if an item with that name or barcode already exists
+	 * With the mapped store the product is appended as a record and the inventory registers the store's
+	 * item for it, not the given one; callers must look the product up again (e.g. by name) to sell it
+	 * With the text inventory the given item is registered and journaled, reaching the snapshot at the next compaction
+	 */
+	public synchronized boolean addItem(Item item) {
+		if (store != null) {
+			return appendToStore(item);
+		}
+		if (items.containsKey(item.getName()) || barcodes.containsKey(item.getBarcode())) {
+			return false;
+		}
+		register(item);
+		indexAddedItem(item);
+		try {
+			journal.appendProduct(item);
+		} catch (IOException e) {
+			System.err.println("Error writing inventory journal: " + e.getMessage());
+			saveInventory();
+			return true;
+		}
+		if (journal.getRecordCount() >= Integer.getInteger(COMPACT_EVERY_PROPERTY, COMPACT_EVERY)) {
+			saveInventory();
+		}
+		return true;
+	}
+	
+	private boolean appendToStore(Item item) {
+		try {
+			FileLock lock = store.lock();
+			try {
+				// Take in products appended by other processes first, so product IDs stay equal to record numbers
+				int known = itemCount;
+				registerStoreItems(known + 1);
+				for (int id = known + 1; id <= itemCount; id++) {
+					indexAddedItem(getItemById(id));
+				}
+				if (items.containsKey(item.getName()) || barcodes.containsKey(item.getBarcode())) {
+					return false;
+				}
+				store.append(item);
+				registerStoreItems(itemCount + 1);
+				indexAddedItem(getItemById(itemCount));
+				return true;
+			} finally {
+				lock.release();
+			}
+		} catch (IOException e) {
+			System.err.println("Error adding item to inventory store: " + e.getMessage());
+			return false;
+		}
+	}
+	
+	/**
+	 * Makes an item added after loading searchable by name and barcode
+	 */
+	private void indexAddedItem(Item item) {
+		searchIndex.add(item.getId(), item.getName());
+		if (item.getBarcode() != 0) {
+			LongIntHashIndex updated = barcodes.copy();
+			indexBarcode(updated, item);
+			barcodes = updated;
+		}
+	}
+	
+	private static void indexBarcode(LongIntHashIndex index, Item item) {
+		if (item.getBarcode() == 0) {
+			return;
+		}
+		int owner = index.get(item.getBarcode());
+		if (owner == LongIntHashIndex.MISSING) {
+			index.put(item.getBarcode(), item.getId());
+		} else {
+			System.err.println("Barcode " + Item.formatBarcode(item.getBarcode()) + " of " + item.getName()
+				+ " already belongs to product " + owner + ", ignoring it");
+		}
+	}
+	
+	/**
+	 * Picks the snapshot to load: the inventory file, or its backup if the file is missing or damaged
+	 */
+	private File chooseSnapshot() throws IOException {
+		File backup = SnapshotFile.backupOf(file);
+		if (file.exists() && SnapshotFile.verify(file)) {
+			return file;
+		}
+		if (file.exists() && !backup.exists() && !SnapshotFile.hasFooter(file)) {
+			// Every rewrite keeps a backup, so this is the file of an older version that never wrote a footer
+			System.err.println("Inventory file has no checksum footer (older version), accepting it: " + file.getName());
+			return file;
+		}
+		if (backup.exists() && SnapshotFile.verify(backup)) {
+			System.err.println("Inventory file " + (file.exists() ? "failed its checksum" : "is missing")
+				+ ", loading backup: " + backup.getName());
+			return backup;
+		}
+		if (file.exists()) {
+			System.err.println("Inventory file failed its checksum and no valid backup exists, loading it anyway");
+		}
+		return file;
+	}
+	
+	/**
+	 * Decides between the streaming loader and the memory-mapped parallel loader
+	 */
+	private boolean useParallelLoad() {
+		String setting = System.getProperty(PARALLEL_LOAD_PROPERTY);
+		if (setting != null) {
+			return Boolean.parseBoolean(setting);
+		}
+		return file.length() >= PARALLEL_LOAD_THRESHOLD;
+	}
+	
+	/**
+	 * Gets the time spent loading the inventory file, in milliseconds
+	 */
+	public long getLoadTimeMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(loadTimeNanos);
+	}
+	
+	/**
+	 * Saves the updated inventory to file (full snapshot) and empties the journal
+	 */
+	public synchronized void saveInventory() {
+		// Taken out before the stock is read, so a sale committed meanwhile stays marked for the next save
+		List<Item> written = drainChangedItems();
+		StringBuilder content = new StringBuilder();
+		for (Item item : getAllItems()) {
+			content.append(item.toString()).append(System.lineSeparator());
+		}
+		try {
+			SnapshotFile.write(file, content.toString());
+		} catch (IOException e) {
+			System.err.println("Error saving inventory: " + e.getMessage());
+			changedItems.addAll(written);
+			return;
+		}
+		try {
+			journal.truncate();
+		} catch (IOException e) {
+			System.err.println("Error truncating inventory journal: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Persists the stock changes since the last save by appending them to the journal
+	 * Compacts the journal into a full snapshot once it grows past the threshold
+	 */
+	public synchronized void saveStockChanges() {
+		if (store != null) {
+			// Sales already changed the mapped records in place
+			drainChangedItems();
+			return;
+		}
+		List<Item> written = drainChangedItems();
+		try {
+			journal.append(written);
+		} catch (IOException e) {
+			System.err.println("Error writing inventory journal: " + e.getMessage());
+			changedItems.addAll(written);
+			saveInventory();
+			return;
+		}
+		if (journal.getRecordCount() >= Integer.getInteger(COMPACT_EVERY_PROPERTY, COMPACT_EVERY)) {
+			saveInventory();
+		}
+	}
+	
+	/**
+	 * Takes the changed items out of the set one by one; lanes keep adding to it while this runs
+	 */
+	private List<Item> drainChangedItems() {
+		List<Item> drained = new ArrayList<>();
+		for (Iterator<Item> iterator = changedItems.iterator(); iterator.hasNext(); ) {
+			drained.add(iterator.next());
+			iterator.remove();
+		}
+		return drained;
+	}
+	
+	/**
+	 * Writes a full snapshot if there are journaled changes (e.g. on shutdown)
+	 */
+	public synchronized void compact() {
+		if (store != null) {
+			store.force();
+			return;
+		}
+		if (journal.getRecordCount() > 0 || !changedItems.isEmpty()) {
+			saveInventory();
+		}
+	}
+	
+	/**
+	 * Gets an item by name
+	 */
+	public Item getItem(String name) {
+		return items.get(name);
+	}
+	
+	/**
+	 * Gets all items in product ID order
+	 */
+	public List<Item> getAllItems() {
+		int count = itemCount;
+		return Collections.unmodifiableList(Arrays.asList(itemsById).subList(0, count));
+	}
+	
+	/**
+	 * Gets an item by its product ID (starting at 1), or null
+	 */
+	public Item getItemById(int id) {
+		int count = itemCount;
+		return id >= 1 && id <= count ? itemsById[id - 1] : null;
+	}
+	
+	/**
+	 * Gets the item with the given barcode (UPC/EAN as a number), or null
+	 */
+	public Item getItemByBarcode(long barcode) {
+		int id = barcodes.get(barcode);
+		return id == LongIntHashIndex.MISSING ? null : getItemById(id);
+	}
+	
+	/**
+	 * Finds items whose name (or a word of it) starts with the query, tolerating typos, best matches first
+	 */
+	public List<Item> searchItems(String query, int limit) {
+		int[] ids = searchIndex.search(query, limit);
+		List<Item> found = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			found.add(getItemById(id));
+		}
+		return found;
+	}
+	
+	/**
+	 * Checks if an item exists
+	 */
+	public boolean hasItem(String name) {
+		return items.containsKey(name);
+	}
+	
+	/**
+	 * Updates an item's stock
+	 */
+	public void updateItemStock(String itemName, int newQuantity) {
+		Item item = items.get(itemName);
+		if (item != null) {
+			item.setQuantity(newQuantity);
+			changedItems.add(item);
+		}
+	}
+	
+	/**
+	 * Gets the stock holds of open carts
+	 */
+	public StockReservations getReservations() {
+		return reservations;
+	}
+	
+	/**
+	 * Removes the sold quantities from stock, all-or-nothing, consuming the lines' holds
+	 * Returns false (changing nothing) if any line has insufficient stock
+	 */
+	public boolean commitSale(Collection<CartItem> lines) {
+		CartItem[] taken = lines.toArray(new CartItem[0]);
+		// One item lock at a time, so concurrent commits cannot deadlock; a failed line puts the earlier ones back
+		for (int i = 0; i < taken.length; i++) {
+			if (!takeLine(taken[i])) {
+				for (int sold = 0; sold < i; sold++) {
+					putBackLine(taken[sold]);
+				}
+				return false;
+			}
+		}
+		for (CartItem line : taken) {
+			changedItems.add(line.getItem());
+		}
+		return true;
+	}
+	
+	/**
+	 * Puts back the stock of a committed sale that could not be completed
+	 * The lines hold their stock again, so the cart can retry or be cleared
+	 */
+	public void cancelSale(Collection<CartItem> lines) {
+		for (CartItem line : lines) {
+			putBackLine(line);
+			changedItems.add(line.getItem());
+		}
+	}
+	
+	/**
+	 * Takes one line's stock and consumes its hold
+	 * Returns false (changing nothing) if there isn't enough stock
+	 */
+	private boolean takeLine(CartItem line) {
+		Item item = line.getItem();
+		synchronized (item) {
+			// Stock held by this cart is available to it, stock held by other carts is not
+			int held = line.hold == null ? 0 : reservations.heldQuantity(line.hold);
+			if (item.getAvailableQuantity() + held < line.getQuantity()) {
+				return false;
+			}
+			// Another process sharing the mapped store may have sold the stock since the check
+			if (!item.tryReduceStock(line.getQuantity())) {
+				return false;
+			}
+			if (line.hold != null) {
+				reservations.release(line.hold);
+				line.hold = null;
+			}
+			return true;
+		}
+	}
+	
+	/**
+	 * Puts back one line's stock and holds it for the line again
+	 */
+	private void putBackLine(CartItem line) {
+		Item item = line.getItem();
+		synchronized (item) {
+			item.restoreStock(line.getQuantity());
+			if (line.hold == null) {
+				line.hold = reservations.reserve(item, line.getQuantity());
+			}
+		}
+	}
+	
+	/**
+	 * Gets the number of items (the highest product ID)
+	 */
+	public int size() {
+		return itemCount;
+	}
+	
+	/**
+	 * Gets the listing lines ("ID. item") of up to count items, starting at the given product ID
+	 */
+	public List<String> listItems(int fromId, int count) {
+		int total = itemCount;
+		Item[] byId = itemsById;
+		int from = Math.max(1, fromId);
+		int to = (int) Math.min(total, from - 1L + Math.max(0, count));
+		List<String> lines = new ArrayList<>(Math.max(0, to - from + 1));
+		for (int id = from; id <= to; id++) {
+			lines.add(byId[id - 1].getListingLine());
+		}
+		return lines;
+	}
+	
+	/**
+	 * Displays one page of the inventory starting at the given product ID
+	 * Returns the product ID the next page starts at, or 0 after the last page
+	 */
+	public int displayInventoryPage(int fromId, int pageSize) {
+		int from = Math.max(1, fromId);
+		List<String> lines = listItems(from, pageSize);
+		StringBuilder page = new StringBuilder();
+		if (from == 1) {
+			page.append("\n=== CURRENT INVENTORY ===\n");
+		}
+		for (String line : lines) {
+			page.append(line).append('\n');
+		}
+		int total = itemCount;
+		int last = from + lines.size() - 1;
+		if (lines.isEmpty()) {
+			page.append("No more items.\n");
+		} else {
+			page.append("Items ").append(from).append('-').append(last).append(" of ").append(total).append('\n');
+		}
+		System.out.print(page);
+		return last < total ? last + 1 : 0;
+	}
+	
+	/**
+	 * Displays the current inventory with product IDs
+	 */
+	public void displayInventory() {
+		System.out.println("\n=== CURRENT INVENTORY ===");
+		for (Item item : getAllItems()) {
+			System.out.println(item.getListingLine());
+		}
+		System.out.println();
+	}
 } 
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.quickmart.app;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Append-only journal of stock changes and new products since the last inventory snapshot
+ *
+ * ASSUMPTIONS:
+ * - One record per changed item per transaction, format "quantity<TAB>itemName"
+ * - A new product is one record "+" followed by its inventory line (see InventoryParser), written
+ *   before any stock change of it, so replay adds products in their original order (and product IDs)
+ * - Records hold the absolute new quantity, so replaying a record twice is harmless
+ * - Records are replayed in order after the snapshot is loaded; the last record for an item wins
+ * - A final line without a newline is a torn write from a crash; replay cuts it off the file, so the
+ *   next record starts on a fresh line
+ * - Stock records for items that are neither in the snapshot nor added earlier in the journal are skipped
+ * - The journal is emptied after every full snapshot write (compaction)
+ * - File encoding is UTF-8
+ */
+public class InventoryJournal {
+	private final File file;
+	private Writer writer;
+	private int recordCount;
+	
+	public InventoryJournal(File file) {
+		this.file = file;
+	}
+	
+	/**
+	 * Applies the journal's records to the loaded items, passing new products to addedItems
+	 * Returns the number of records applied
+	 */
+	public int replay(Map<String, Item> items, Consumer<Item> addedItems) {
+		recordCount = 0;
+		if (!file.exists()) {
+			return 0;
+		}
+		int applied = 0;
+		try {
+			byte[] bytes = Files.readAllBytes(file.toPath());
+			int complete = bytes.length;
+			while (complete > 0 && bytes[complete - 1] != '\n') {
+				complete--;
+			}
+			if (complete < bytes.length) {
+				// Drop a record torn by a crash so the next append doesn't run on from it
+				try (RandomAccessFile torn = new RandomAccessFile(file, "rw")) {
+					torn.setLength(complete);
+				}
+			}
+			String content = new String(bytes, 0, complete, StandardCharsets.UTF_8);
+			int lineStart = 0;
+			int newline;
+			while ((newline = content.indexOf('\n', lineStart)) >= 0) {
+				String record = content.substring(lineStart, newline);
+				lineStart = newline + 1;
+				recordCount++;
+				if (record.startsWith("+")) {
+					char[] line = record.toCharArray();
+					Item added = InventoryParser.parseLine(line, 1, line.length, System.err::println);
+					if (added != null) {
+						addedItems.accept(added);
+						applied++;
+					}
+					continue;
+				}
+				int tab = record.indexOf('\t');
+				if (tab < 0) {
+					System.err.println("Invalid inventory journal record: " + record);
+					continue;
+				}
+				Item item = items.get(record.substring(tab + 1));
+				if (item == null) {
+					System.err.println("Inventory journal record for unknown item: " + record);
+					continue;
+				}
+				try {
+					item.setQuantity(Integer.parseInt(record.substring(0, tab)));
+					applied++;
+				} catch (NumberFormatException e) {
+					System.err.println("Invalid inventory journal record: " + record);
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("Error replaying inventory journal: " + e.getMessage());
+		}
+		return applied;
+	}
+	
+	/**
+	 * Appends the current stock of the given items
+	 */
+	public void append(Collection<Item> changedItems) throws IOException {
+		if (changedItems.isEmpty()) {
+			return;
+		}
+		if (writer == null) {
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+		}
+		for (Item item : changedItems) {
+			writer.write(Integer.toString(item.getQuantity()));
+			writer.write('\t');
+			writer.write(item.getName());
+			writer.write('\n');
+		}
+		writer.flush();
+		recordCount += changedItems.size();
+	}
+	
+	/**
+	 * Appends a new product with its current stock
+	 */
+	public void appendProduct(Item item) throws IOException {
+		if (writer == null) {
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+		}
+		writer.write('+');
+		writer.write(item.toString());
+		writer.write('\n');
+		writer.flush();
+		recordCount++;
+	}
+	
+	/**
+	 * Empties the journal once its records are part of a snapshot
+	 */
+	public void truncate() throws IOException {
+		close();
+		new FileOutputStream(file).close();
+		recordCount = 0;
+	}
+	
+	/**
+	 * Closes the journal file
+	 */
+	public void close() throws IOException {
+		if (writer != null) {
+			writer.close();
+			writer = null;
+		}
+	}
+	
+	/**
+	 * Gets the number of records written since the last snapshot
+	 */
+	public int getRecordCount() {
+		return recordCount;
+	}
+}
@@ -0,0 +1,317 @@
+package com.quickmart.app;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass, character-level parser for inventory files
+ *
+ * ASSUMPTIONS:
+ * - Line format: "ItemName: quantity, $regularPrice, $memberPrice, TaxStatus[, barcode]"
+ * - The barcode (UPC/EAN) is optional, so older files load unchanged; it is 1 to 14 digits and not all zeros
+ * - Exactly one ":" separates the name from the details
+ * - Details are separated by ", " (comma followed by a space), so decimal commas are not separators
+ * - Prices can use either comma (European) or dot (US) as decimal separator
+ * - If both comma and dot are present, comma is thousands separator (US format: $1,234.56)
+ * - "$" symbols inside a price are ignored
+ * - Prices have at most 18 significant digits (fit in a long before scaling)
+ * - TaxStatus "Taxable" marks a taxable item, anything else is tax-exempt
+ * - Lines are terminated by "\n" or "\r\n"; blank lines and the snapshot checksum footer ("#CRC32:...") are skipped
+ * - Any other line starting with "#" is a product (e.g. "#1 Hits Candy")
+ * - Invalid lines are reported through the error consumer and skipped
+ * - Only the item name, the two price BigDecimals and error messages are allocated per line
+ */
+public class InventoryParser {
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	private InventoryParser() {
+	}
+	
+	/**
+	 * Streams every line of the reader through the parser
+	 * Returns the number of items produced
+	 */
+	public static int parse(Reader reader, Consumer<Item> items, Consumer<String> errors) throws IOException {
+		char[] buffer = new char[BUFFER_SIZE];
+		int length = 0;
+		int count = 0;
+		int read;
+		while ((read = reader.read(buffer, length, buffer.length - length)) != -1) {
+			length += read;
+			int lineStart = 0;
+			for (int i = 0; i < length; i++) {
+				if (buffer[i] == '\n') {
+					count += parseInto(buffer, lineStart, i, items, errors);
+					lineStart = i + 1;
+				}
+			}
+			// Carry the incomplete last line to the front of the buffer
+			length -= lineStart;
+			System.arraycopy(buffer, lineStart, buffer, 0, length);
+			if (length == buffer.length) {
+				char[] larger = new char[buffer.length * 2];
+				System.arraycopy(buffer, 0, larger, 0, length);
+				buffer = larger;
+			}
+		}
+		count += parseInto(buffer, 0, length, items, errors);
+		return count;
+	}
+	
+	/**
+	 * Parses every line in a character range
+	 * Returns the number of items produced
+	 */
+	public static int parse(char[] buffer, int start, int end, Consumer<Item> items, Consumer<String> errors) {
+		int count = 0;
+		int lineStart = start;
+		for (int i = start; i < end; i++) {
+			if (buffer[i] == '\n') {
+				count += parseInto(buffer, lineStart, i, items, errors);
+				lineStart = i + 1;
+			}
+		}
+		return count + parseInto(buffer, lineStart, end, items, errors);
+	}
+	
+	private static int parseInto(char[] buffer, int start, int end, Consumer<Item> items, Consumer<String> errors) {
+		Item item = parseLine(buffer, start, end, errors);
+		if (item == null) {
+			return 0;
+		}
+		items.accept(item);
+		return 1;
+	}
+	
+	/**
+	 * Parses one line (without its terminator)
+	 * Returns null for blank, footer or invalid lines; invalid lines are reported to errors
+	 */
+	static Item parseLine(char[] buffer, int start, int end, Consumer<String> errors) {
+		if (end > start && buffer[end - 1] == '\r') {
+			end--;
+		}
+		int firstChar = trimStart(buffer, start, end);
+		if (firstChar == end || isFooter(buffer, firstChar, end)) {
+			return null;
+		}
+		
+		try {
+			int colon = -1;
+			for (int i = start; i < end; i++) {
+				if (buffer[i] == ':') {
+					if (colon >= 0) {
+						colon = -2;
+						break;
+					}
+					colon = i;
+				}
+			}
+			if (colon < 0 || colon == end - 1) {
+				errors.accept("Invalid format in line: " + line(buffer, start, end));
+				return null;
+			}
+			
+			// Locate the three ", " separators between the four detail fields, and the optional fourth
+			int detailsStart = trimStart(buffer, colon + 1, end);
+			int detailsEnd = trimEnd(buffer, detailsStart, end);
+			int first = nextSeparator(buffer, detailsStart, detailsEnd);
+			int second = first < 0 ? -1 : nextSeparator(buffer, first + 2, detailsEnd);
+			int third = second < 0 ? -1 : nextSeparator(buffer, second + 2, detailsEnd);
+			int fourth = third < 0 ? -1 : nextSeparator(buffer, third + 2, detailsEnd);
+			if (third < 0 || (fourth >= 0 && nextSeparator(buffer, fourth + 2, detailsEnd) >= 0)) {
+				errors.accept("Insufficient data in line: " + line(buffer, start, end));
+				return null;
+			}
+			int taxEnd = fourth < 0 ? detailsEnd : fourth;
+			
+			int nameStart = trimStart(buffer, start, colon);
+			String itemName = new String(buffer, nameStart, trimEnd(buffer, nameStart, colon) - nameStart);
+			int quantity = parseQuantity(buffer, detailsStart, first);
+			BigDecimal regularPrice = parsePrice(buffer, first + 2, second);
+			BigDecimal memberPrice = parsePrice(buffer, second + 2, third);
+			boolean isTaxable = equalsTrimmed(buffer, third + 2, taxEnd, "Taxable");
+			long barcode = fourth < 0 ? 0 : parseBarcode(buffer, fourth + 2, detailsEnd);
+			return new Item(itemName, quantity, regularPrice, memberPrice, isTaxable, barcode);
+		} catch (NumberFormatException e) {
+			errors.accept("Error in numeric format in line: " + line(buffer, start, end) + " - " + e.getMessage());
+		} catch (Exception e) {
+			errors.accept("Error parsing line: " + line(buffer, start, end) + " - " + e.getMessage());
+		}
+		return null;
+	}
+	
+	/**
+	 * Parses a non-negative or signed integer quantity
+	 */
+	private static int parseQuantity(char[] buffer, int start, int end) {
+		int from = trimStart(buffer, start, end);
+		int to = trimEnd(buffer, from, end);
+		int i = from;
+		boolean negative = false;
+		if (i < to && (buffer[i] == '-' || buffer[i] == '+')) {
+			negative = buffer[i] == '-';
+			i++;
+		}
+		if (i == to) {
+			throw numberFormatError(buffer, from, to);
+		}
+		long value = 0;
+		for (; i < to; i++) {
+			char c = buffer[i];
+			if (c < '0' || c > '9') {
+				throw numberFormatError(buffer, from, to);
+			}
+			value = value * 10 + (c - '0');
+			if (value > (long) Integer.MAX_VALUE + 1) {
+				throw numberFormatError(buffer, from, to);
+			}
+		}
+		value = negative ? -value : value;
+		if (value > Integer.MAX_VALUE) {
+			throw numberFormatError(buffer, from, to);
+		}
+		return (int) value;
+	}
+	
+	/**
+	 * Parses a UPC/EAN barcode: 1 to 14 digits, not all zeros
+	 */
+	static long parseBarcode(char[] buffer, int start, int end) {
+		int from = trimStart(buffer, start, end);
+		int to = trimEnd(buffer, from, end);
+		if (to == from || to - from > 14) {
+			throw numberFormatError(buffer, from, to);
+		}
+		long value = 0;
+		for (int i = from; i < to; i++) {
+			char c = buffer[i];
+			if (c < '0' || c > '9') {
+				throw numberFormatError(buffer, from, to);
+			}
+			value = value * 10 + (c - '0');
+		}
+		if (value == 0) {
+			throw numberFormatError(buffer, from, to);
+		}
+		return value;
+	}
+	
+	/**
+	 * Parses a price with flexible decimal format support
+	 * Accepts both comma and dot decimal separators
+	 */
+	static BigDecimal parsePrice(char[] buffer, int start, int end) {
+		int from = trimStart(buffer, start, end);
+		int to = trimEnd(buffer, from, end);
+		
+		// Decide which character is the decimal separator
+		boolean hasComma = false;
+		boolean hasDot = false;
+		for (int i = from; i < to; i++) {
+			hasComma |= buffer[i] == ',';
+			hasDot |= buffer[i] == '.';
+		}
+		char decimalSeparator = hasDot ? '.' : ',';
+		
+		long unscaled = 0;
+		int scale = -1;
+		int digits = 0;
+		boolean negative = false;
+		boolean signAllowed = true;
+		for (int i = from; i < to; i++) {
+			char c = buffer[i];
+			if (c == '$' || (signAllowed && Character.isWhitespace(c))) {
+				continue;
+			}
+			if (signAllowed && (c == '-' || c == '+')) {
+				negative = c == '-';
+				signAllowed = false;
+				continue;
+			}
+			signAllowed = false;
+			if (c >= '0' && c <= '9') {
+				if (++digits > 18) {
+					throw numberFormatError(buffer, from, to);
+				}
+				unscaled = unscaled * 10 + (c - '0');
+				if (scale >= 0) {
+					scale++;
+				}
+			} else if (c == decimalSeparator && scale < 0) {
+				scale = 0;
+			} else if (c == ',' && hasComma && hasDot) {
+				// Thousands separator
+			} else {
+				throw numberFormatError(buffer, from, to);
+			}
+		}
+		if (digits == 0) {
+			throw numberFormatError(buffer, from, to);
+		}
+		return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+	}
+	
+	/**
+	 * Finds the next ", " separator, or -1 when there is none
+	 */
+	private static int nextSeparator(char[] buffer, int start, int end) {
+		for (int i = start; i < end - 1; i++) {
+			if (buffer[i] == ',' && buffer[i + 1] == ' ') {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	private static boolean equalsTrimmed(char[] buffer, int start, int end, String expected) {
+		int from = trimStart(buffer, start, end);
+		int to = trimEnd(buffer, from, end);
+		if (to - from != expected.length()) {
+			return false;
+		}
+		for (int i = 0; i < expected.length(); i++) {
+			if (buffer[from + i] != expected.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static boolean isFooter(char[] buffer, int start, int end) {
+		String prefix = SnapshotFile.FOOTER_PREFIX;
+		if (end - start < prefix.length()) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length(); i++) {
+			if (buffer[start + i] != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static int trimStart(char[] buffer, int start, int end) {
+		while (start < end && buffer[start] <= ' ') {
+			start++;
+		}
+		return start;
+	}
+	
+	private static int trimEnd(char[] buffer, int start, int end) {
+		while (end > start && buffer[end - 1] <= ' ') {
+			end--;
+		}
+		return end;
+	}
+	
+	private static NumberFormatException numberFormatError(char[] buffer, int start, int end) {
+		return new NumberFormatException("For input string: \"" + line(buffer, start, end) + "\"");
+	}
+	
+	private static String line(char[] buffer, int start, int end) {
+		return new String(buffer, start, end - start);
+	}
+}
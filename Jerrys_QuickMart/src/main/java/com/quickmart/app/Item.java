@@ -1,68 +1,198 @@
-package com.quickmart.app;
-
-import java.math.BigDecimal;
-
-/**
- * Represents a product in Jerry's Quick Mart inventory
- */
-public class Item {
-	private String name;
-	private int quantity;
-	private BigDecimal regularPrice;
-	private BigDecimal memberPrice;
-	private boolean isTaxable;
-	
-	public Item(String name, int quantity, BigDecimal regularPrice, BigDecimal memberPrice, boolean isTaxable) {
-		this.name = name;
-		this.quantity = quantity;
-		this.regularPrice = regularPrice;
-		this.memberPrice = memberPrice;
-		this.isTaxable = isTaxable;
-	}
-	
-	// Getters y setters
-	public String getName() { return name; }
-	public int getQuantity() { return quantity; }
-	public BigDecimal getRegularPrice() { return regularPrice; }
-	public BigDecimal getMemberPrice() { return memberPrice; }
-	public boolean isTaxable() { return isTaxable; }
-	
-	public void setQuantity(int quantity) { this.quantity = quantity; }
-	
-	/**
-	 * Checks if there's available stock
-	 */
-	public boolean hasStock(int requestedQuantity) {
-		return quantity >= requestedQuantity;
-	}
-	
-	/**
-	 * Reduces the product stock
-	 */
-	public void reduceStock(int quantity) {
-		if (this.quantity >= quantity) {
-			this.quantity -= quantity;
-		}
-	}
-	
-	/**
-	 * Gets the price based on customer type
-	 */
-	public BigDecimal getPrice(boolean isMember) {
-		return isMember ? memberPrice : regularPrice;
-	}
-	
-	/**
-	 * Calculates member savings
-	 */
-	public BigDecimal getMemberSavings() {
-		return regularPrice.subtract(memberPrice);
-	}
-	
-	@Override
-	public String toString() {
-		return String.format("%s: %d, $%.2f, $%.2f, %s", 
-			name, quantity, regularPrice, memberPrice, 
-			isTaxable ? "Taxable" : "Tax-Exempt");
-	}
+package com.quickmart.app;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Represents a product in Jerry's Quick Mart inventory
+ * 
+ * Stock changes are synchronized on the item, so one shared item can be sold by several lanes.
+ * An item may carry a numeric barcode (UPC/EAN, up to 14 digits); 0 means it has none.
+ * Everything derived from the item's values goes through its getters, so a subclass can keep the
+ * values elsewhere (see ColumnarCatalog's flyweight views).
+ */
+public class Item {
+	private String name;
+	private volatile int quantity;
+	// Units held by open carts (see StockReservations), guarded by this item's monitor
+	private volatile int reserved;
+	private BigDecimal regularPrice;
+	private BigDecimal memberPrice;
+	private boolean isTaxable;
+	// Prices in cents for the fixed-point money engine
+	private long regularPriceCents;
+	private long memberPriceCents;
+	// Product ID assigned by the Inventory (0 while the item belongs to none)
+	private int id;
+	// UPC/EAN as a number (leading zeros dropped), 0 when the item has no barcode
+	private final long barcode;
+	// Last rendered inventory line; only valid for the stock and locale it was rendered with
+	private volatile Listing listing;
+	
+	public Item(String name, int quantity, BigDecimal regularPrice, BigDecimal memberPrice, boolean isTaxable) {
+		this(name, quantity, regularPrice, memberPrice, isTaxable, 0);
+	}
+	
+	public Item(String name, int quantity, BigDecimal regularPrice, BigDecimal memberPrice, boolean isTaxable, long barcode) {
+		this.name = name;
+		this.quantity = quantity;
+		this.regularPrice = regularPrice;
+		this.memberPrice = memberPrice;
+		this.isTaxable = isTaxable;
+		this.regularPriceCents = Money.toCents(regularPrice);
+		this.memberPriceCents = Money.toCents(memberPrice);
+		this.barcode = barcode;
+	}
+	
+	public Item(String name, int quantity, long regularPriceCents, long memberPriceCents, boolean isTaxable) {
+		this(name, quantity, Money.toBigDecimal(regularPriceCents), Money.toBigDecimal(memberPriceCents), isTaxable);
+	}
+	
+	/**
+	 * Creates an item without values of its own, for subclasses that override the getters
+	 */
+	Item(int id) {
+		this.id = id;
+		this.barcode = 0;
+	}
+	
+	// Getters y setters
+	public String getName() { return name; }
+	public int getQuantity() { return quantity; }
+	public int getReservedQuantity() { return reserved; }
+	public BigDecimal getRegularPrice() { return regularPrice; }
+	public BigDecimal getMemberPrice() { return memberPrice; }
+	public boolean isTaxable() { return isTaxable; }
+	public long getRegularPriceCents() { return regularPriceCents; }
+	public long getMemberPriceCents() { return memberPriceCents; }
+	public int getId() { return id; }
+	public long getBarcode() { return barcode; }
+	
+	void setId(int id) { this.id = id; }
+	public synchronized void setQuantity(int quantity) { this.quantity = quantity; }
+	
+	/**
+	 * Checks if there's available stock
+	 */
+	public boolean hasStock(int requestedQuantity) {
+		return getQuantity() >= requestedQuantity;
+	}
+	
+	/**
+	 * Gets the stock not held by open carts
+	 */
+	public int getAvailableQuantity() {
+		return getQuantity() - getReservedQuantity();
+	}
+	
+	/**
+	 * Changes the units held by open carts
+	 */
+	synchronized void adjustReserved(int delta) {
+		reserved = Math.max(0, reserved + delta);
+	}
+	
+	/**
+	 * Reduces the product stock
+	 */
+	public synchronized void reduceStock(int quantity) {
+		tryReduceStock(quantity);
+	}
+	
+	/**
+	 * Reduces the product stock only if there's enough of it
+	 * Returns true if the stock was reduced
+	 */
+	public synchronized boolean tryReduceStock(int quantity) {
+		if (this.quantity >= quantity) {
+			this.quantity -= quantity;
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Puts back stock taken by tryReduceStock (when a sale is rolled back)
+	 */
+	synchronized void restoreStock(int quantity) {
+		this.quantity += quantity;
+	}
+	
+	/**
+	 * Gets the price based on customer type
+	 */
+	public BigDecimal getPrice(boolean isMember) {
+		return isMember ? getMemberPrice() : getRegularPrice();
+	}
+	
+	/**
+	 * Gets the price in cents based on customer type
+	 */
+	public long getPriceCents(boolean isMember) {
+		return isMember ? getMemberPriceCents() : getRegularPriceCents();
+	}
+	
+	/**
+	 * Calculates member savings
+	 */
+	public BigDecimal getMemberSavings() {
+		return getRegularPrice().subtract(getMemberPrice());
+	}
+	
+	/**
+	 * Calculates member savings in cents
+	 */
+	public long getMemberSavingsCents() {
+		return getRegularPriceCents() - getMemberPriceCents();
+	}
+	
+	/**
+	 * Gets the inventory listing line ("ID. item"), rendered again only after the stock changes
+	 */
+	public String getListingLine() {
+		int stock = getQuantity();
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		Listing cached = listing;
+		if (cached == null || cached.quantity != stock || cached.id != id || !cached.locale.equals(locale)) {
+			cached = new Listing(id, stock, locale, id + ". " + format(stock));
+			listing = cached;
+		}
+		return cached.line;
+	}
+	
+	@Override
+	public String toString() {
+		return format(getQuantity());
+	}
+	
+	private String format(int stock) {
+		String line = String.format("%s: %d, $%.2f, $%.2f, %s", 
+			getName(), stock, getRegularPrice(), getMemberPrice(), 
+			isTaxable() ? "Taxable" : "Tax-Exempt");
+		return getBarcode() == 0 ? line : line + ", " + formatBarcode(getBarcode());
+	}
+	
+	/**
+	 * Formats a barcode with at least 12 digits (UPC-A), restoring its leading zeros
+	 */
+	public static String formatBarcode(long barcode) {
+		return String.format(Locale.ROOT, "%012d", barcode);
+	}
+	
+	/**
+	 * A rendered listing line with what it was rendered from
+	 */
+	private static final class Listing {
+		private final int id;
+		private final int quantity;
+		private final Locale locale;
+		private final String line;
+		
+		Listing(int id, int quantity, Locale locale, String line) {
+			this.id = id;
+			this.quantity = quantity;
+			this.locale = locale;
+			this.line = line;
+		}
+	}
 } 
\ No newline at end of file
@@ -0,0 +1,309 @@
+package com.quickmart.app;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless checkout driver for load testing a store configuration
+ *
+ * ASSUMPTIONS:
+ * - Runs against the inventory, counter and receipts of the data directory ("quickmart.data.dir"),
+ *   so it sells real stock: point it at a copy of the store's data
+ * - Each lane is one thread with its own Cart, sharing one Inventory and TransactionManager like
+ *   real registers do; carts hold stock (StockReservations) exactly like MainApp's
+ * - A session is one customer: a customer type, then adds/removes, then a checkout or a cancel
+ * - Sessions come from a script (see LoadScript) replayed in a loop, or are generated at random
+ *   from the catalog
+ * - With a target rate, sessions start on a fixed schedule shared by all lanes; a session's latency
+ *   is measured from its scheduled start, so a stalled lane shows up as latency instead of hiding it
+ * - Without a rate, lanes run back to back as fast as they can
+ * - Add/remove/checkout/cancel latencies are the time of that call alone, recorded per lane and merged
+ *   at the end; percentiles are exact (all samples are kept)
+ * - Console output of checkouts ("Receipt queued as: ...") is suppressed during the run
+ *
+ * Usage: LoadDriver [--lanes N] [--transactions N] [--rate TPS] [--script file]
+ *        [--items N] [--members fraction] [--removes fraction] [--seed N]
+ */
+public class LoadDriver {
+	public enum Operation { ADD, REMOVE, CHECKOUT, CANCEL, SESSION }
+	
+	private final Inventory inventory;
+	private final List<LoadScript.Session> script;
+	private final int lanes;
+	private final int transactions;
+	private final double rate;
+	private final int maxItems;
+	private final double memberShare;
+	private final double removeShare;
+	private final long seed;
+	private final List<Item> catalog;
+	private final AtomicInteger nextSession = new AtomicInteger();
+	private final AtomicInteger failedCheckouts = new AtomicInteger();
+	private final AtomicInteger rejectedAdds = new AtomicInteger();
+	private long startNanos;
+	
+	/**
+	 * Creates a driver; script may be null for a random workload
+	 */
+	public LoadDriver(Inventory inventory, List<LoadScript.Session> script, int lanes, int transactions, double rate,
+			int maxItems, double memberShare, double removeShare, long seed) {
+		this.inventory = inventory;
+		this.script = script;
+		this.lanes = Math.max(1, lanes);
+		this.transactions = transactions;
+		this.rate = rate;
+		this.maxItems = Math.max(1, maxItems);
+		this.memberShare = memberShare;
+		this.removeShare = removeShare;
+		this.seed = seed;
+		this.catalog = new ArrayList<>(inventory.getAllItems());
+		catalog.sort(Comparator.comparing(Item::getName));
+	}
+	
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			options.put(args[i], args[i + 1]);
+		}
+		if (args.length % 2 != 0) {
+			System.err.println("Usage: LoadDriver [--lanes N] [--transactions N] [--rate TPS] [--script file]"
+				+ " [--items N] [--members fraction] [--removes fraction] [--seed N]");
+			System.exit(2);
+		}
+		List<LoadScript.Session> script = null;
+		if (options.containsKey("--script")) {
+			script = LoadScript.parse(Files.readAllLines(Paths.get(options.get("--script")), Charset.defaultCharset()));
+		}
+		
+		Inventory inventory = new Inventory();
+		LoadDriver driver = new LoadDriver(inventory, script,
+			Integer.parseInt(options.getOrDefault("--lanes", "4")),
+			Integer.parseInt(options.getOrDefault("--transactions", "1000")),
+			Double.parseDouble(options.getOrDefault("--rate", "0")),
+			Integer.parseInt(options.getOrDefault("--items", "5")),
+			Double.parseDouble(options.getOrDefault("--members", "0.5")),
+			Double.parseDouble(options.getOrDefault("--removes", "0.1")),
+			Long.parseLong(options.getOrDefault("--seed", "42")));
+		
+		PrintStream console = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		LatencyStats stats;
+		try {
+			stats = driver.run();
+		} finally {
+			System.setOut(console);
+		}
+		inventory.compact();
+		System.out.print(driver.report(stats));
+	}
+	
+	/**
+	 * Runs the workload and waits for every lane to finish
+	 */
+	public LatencyStats run() throws InterruptedException {
+		if (script == null && catalog.isEmpty()) {
+			throw new IllegalStateException("The inventory is empty");
+		}
+		List<LatencyStats> laneStats = new ArrayList<>();
+		CountDownLatch done = new CountDownLatch(lanes);
+		startNanos = System.nanoTime();
+		for (int lane = 0; lane < lanes; lane++) {
+			LatencyStats stats = new LatencyStats();
+			laneStats.add(stats);
+			Random random = new Random(seed + lane);
+			Thread thread = new Thread(() -> {
+				try {
+					runLane(stats, random);
+				} finally {
+					done.countDown();
+				}
+			}, "load-lane-" + (lane + 1));
+			thread.start();
+		}
+		done.await();
+		long elapsed = System.nanoTime() - startNanos;
+		try {
+			TransactionManager.flushReceipts();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		
+		LatencyStats total = new LatencyStats();
+		for (LatencyStats stats : laneStats) {
+			total.addAll(stats);
+		}
+		total.elapsedNanos = elapsed;
+		return total;
+	}
+	
+	private void runLane(LatencyStats stats, Random random) {
+		for (int session = nextSession.getAndIncrement(); session < transactions; session = nextSession.getAndIncrement()) {
+			long scheduled = System.nanoTime();
+			if (rate > 0) {
+				scheduled = startNanos + (long) (session * 1e9 / rate);
+				for (long wait = scheduled - System.nanoTime(); wait > 0; wait = scheduled - System.nanoTime()) {
+					LockSupport.parkNanos(wait);
+				}
+			}
+			LoadScript.Session steps = script != null ? script.get(session % script.size()) : randomSession(random);
+			runSession(steps, stats);
+			stats.record(Operation.SESSION, System.nanoTime() - scheduled);
+		}
+	}
+	
+	/**
+	 * Plays one customer against a fresh cart, releasing whatever it still holds at the end
+	 */
+	private void runSession(LoadScript.Session session, LatencyStats stats) {
+		Cart cart = new Cart(session.isMember(), Money.isFixedPointEnabled(), inventory);
+		for (LoadScript.Step step : session.getSteps()) {
+			long start = System.nanoTime();
+			switch (step.getOperation()) {
+				case ADD:
+					Item item = inventory.getItem(step.getItemName());
+					if (item == null || !cart.addItem(item, step.getQuantity())) {
+						rejectedAdds.incrementAndGet();
+					}
+					break;
+				case REMOVE:
+					// Quantity 0 removes the whole line
+					int quantity = step.getQuantity() == 0 ? cart.getItemQuantity(step.getItemName()) : step.getQuantity();
+					cart.removeItem(step.getItemName(), quantity);
+					break;
+				case CHECKOUT:
+					if (cart.isEmpty()) {
+						// Nothing to sell; timed and counted like any other failed checkout
+						failedCheckouts.incrementAndGet();
+						break;
+					}
+					try {
+						BigDecimal cash = step.getCash() != null ? step.getCash() : cart.getTotal();
+						TransactionManager.processTransaction(cart, cash, inventory);
+					} catch (IllegalArgumentException | IllegalStateException e) {
+						failedCheckouts.incrementAndGet();
+						cart.clear();
+					}
+					break;
+				default:
+					cart.clear();
+			}
+			stats.record(step.getOperation(), System.nanoTime() - start);
+		}
+		cart.clear();
+	}
+	
+	/**
+	 * Builds a random customer: some adds, maybe a remove, then checkout with exact cash
+	 */
+	private LoadScript.Session randomSession(Random random) {
+		LoadScript.Session session = new LoadScript.Session(random.nextDouble() < memberShare);
+		int lines = 1 + random.nextInt(maxItems);
+		String last = null;
+		for (int i = 0; i < lines; i++) {
+			last = catalog.get(random.nextInt(catalog.size())).getName();
+			session.add(new LoadScript.Step(Operation.ADD, last, 1 + random.nextInt(3), null));
+		}
+		if (random.nextDouble() < removeShare) {
+			session.add(new LoadScript.Step(Operation.REMOVE, last, 0, null));
+		}
+		session.add(new LoadScript.Step(Operation.CHECKOUT, null, 0, null));
+		return session;
+	}
+	
+	/**
+	 * Formats throughput, failures and latency percentiles
+	 */
+	public String report(LatencyStats stats) {
+		StringBuilder out = new StringBuilder();
+		double seconds = stats.elapsedNanos / 1e9;
+		int checkouts = stats.count(Operation.CHECKOUT) - failedCheckouts.get();
+		out.append(String.format("Lanes: %d, sessions: %d, elapsed: %.3f s%n", lanes, stats.count(Operation.SESSION), seconds));
+		out.append(String.format("Transactions: %d (%.1f TPS), failed checkouts: %d, rejected adds: %d%n",
+			checkouts, checkouts / seconds, failedCheckouts.get(), rejectedAdds.get()));
+		out.append(String.format("%-9s %8s %10s %10s %10s %10s %10s%n", "OPERATION", "COUNT", "P50 ms", "P90 ms", "P99 ms", "P99.9 ms", "MAX ms"));
+		for (Operation operation : Operation.values()) {
+			if (stats.count(operation) == 0) {
+				continue;
+			}
+			out.append(String.format("%-9s %8d %10.3f %10.3f %10.3f %10.3f %10.3f%n", operation, stats.count(operation),
+				stats.percentile(operation, 50) / 1e6, stats.percentile(operation, 90) / 1e6,
+				stats.percentile(operation, 99) / 1e6, stats.percentile(operation, 99.9) / 1e6,
+				stats.percentile(operation, 100) / 1e6));
+		}
+		return out.toString();
+	}
+	
+	/**
+	 * Latency samples per operation, in nanoseconds
+	 */
+	public static class LatencyStats {
+		private final long[][] samples = new long[Operation.values().length][];
+		private final int[] counts = new int[Operation.values().length];
+		private final boolean[] sorted = new boolean[Operation.values().length];
+		private long elapsedNanos;
+		
+		public LatencyStats() {
+			for (int i = 0; i < samples.length; i++) {
+				samples[i] = new long[64];
+			}
+		}
+		
+		/**
+		 * Adds one sample
+		 */
+		public void record(Operation operation, long nanos) {
+			int op = operation.ordinal();
+			if (counts[op] == samples[op].length) {
+				samples[op] = Arrays.copyOf(samples[op], counts[op] * 2);
+			}
+			samples[op][counts[op]++] = nanos;
+			sorted[op] = false;
+		}
+		
+		/**
+		 * Adds every sample of another lane
+		 */
+		public void addAll(LatencyStats other) {
+			for (Operation operation : Operation.values()) {
+				int op = operation.ordinal();
+				for (int i = 0; i < other.counts[op]; i++) {
+					record(operation, other.samples[op][i]);
+				}
+			}
+		}
+		
+		public int count(Operation operation) {
+			return counts[operation.ordinal()];
+		}
+		
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+		
+		/**
+		 * Gets a percentile (0-100) by the nearest-rank method, or 0 without samples
+		 */
+		public long percentile(Operation operation, double percentile) {
+			int op = operation.ordinal();
+			if (counts[op] == 0) {
+				return 0;
+			}
+			if (!sorted[op]) {
+				Arrays.sort(samples[op], 0, counts[op]);
+				sorted[op] = true;
+			}
+			// The epsilon keeps e.g. 99.9% of 1000 samples at rank 999 despite floating-point error
+			int rank = (int) Math.ceil(percentile / 100 * counts[op] - 1e-9);
+			return samples[op][Math.min(counts[op], Math.max(1, rank)) - 1];
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.quickmart.app;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Checkout script for the LoadDriver: a list of customer sessions
+ *
+ * ASSUMPTIONS:
+ * - One command per line; blank lines and lines starting with '#' are ignored
+ * - "member" or "regular" starts a session
+ * - "add <item name> <quantity>" and "remove <item name> <quantity>" change the cart; item names may
+ *   contain spaces since the quantity is the last word; removing quantity 0 removes the whole line
+ * - "checkout" pays the exact total, "checkout <cash>" pays the given amount; "cancel" drops the cart;
+ *   either one ends the session
+ * - Commands are case-insensitive; item names are matched exactly, like Inventory.getItem
+ * - A malformed script is rejected as a whole with the offending line number
+ */
+public final class LoadScript {
+	
+	private LoadScript() {
+	}
+	
+	/**
+	 * Parses the lines of a script
+	 */
+	public static List<Session> parse(List<String> lines) {
+		List<Session> sessions = new ArrayList<>();
+		Session session = null;
+		for (int number = 1; number <= lines.size(); number++) {
+			String line = lines.get(number - 1).trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			int space = line.indexOf(' ');
+			String command = (space < 0 ? line : line.substring(0, space)).toLowerCase();
+			String argument = space < 0 ? "" : line.substring(space + 1).trim();
+			try {
+				if (command.equals("member") || command.equals("regular")) {
+					if (session != null) {
+						throw new IllegalArgumentException("previous session has no checkout or cancel");
+					}
+					session = new Session(command.equals("member"));
+					continue;
+				}
+				if (session == null) {
+					throw new IllegalArgumentException("start a session with \"member\" or \"regular\" first");
+				}
+				switch (command) {
+					case "add":
+					case "remove":
+						int split = argument.lastIndexOf(' ');
+						if (split <= 0) {
+							throw new IllegalArgumentException("expected <item name> <quantity>");
+						}
+						session.add(new Step(command.equals("add") ? LoadDriver.Operation.ADD : LoadDriver.Operation.REMOVE,
+							argument.substring(0, split).trim(), Integer.parseInt(argument.substring(split + 1)), null));
+						break;
+					case "checkout":
+						session.add(new Step(LoadDriver.Operation.CHECKOUT, null, 0,
+							argument.isEmpty() ? null : new BigDecimal(argument)));
+						sessions.add(session);
+						session = null;
+						break;
+					case "cancel":
+						session.add(new Step(LoadDriver.Operation.CANCEL, null, 0, null));
+						sessions.add(session);
+						session = null;
+						break;
+					default:
+						throw new IllegalArgumentException("unknown command \"" + command + "\"");
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Script line " + number + ": invalid number", e);
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Script line " + number + ": " + e.getMessage(), e);
+			}
+		}
+		if (session != null) {
+			throw new IllegalArgumentException("Script ends inside a session (missing checkout or cancel)");
+		}
+		if (sessions.isEmpty()) {
+			throw new IllegalArgumentException("Script has no sessions");
+		}
+		return sessions;
+	}
+	
+	/**
+	 * One customer: the customer type and the steps in order
+	 */
+	public static class Session {
+		private final boolean member;
+		private final List<Step> steps = new ArrayList<>();
+		
+		public Session(boolean member) {
+			this.member = member;
+		}
+		
+		void add(Step step) {
+			steps.add(step);
+		}
+		
+		public boolean isMember() { return member; }
+		public List<Step> getSteps() { return Collections.unmodifiableList(steps); }
+	}
+	
+	/**
+	 * One cashier action
+	 */
+	public static class Step {
+		private final LoadDriver.Operation operation;
+		private final String itemName;
+		private final int quantity;
+		private final BigDecimal cash;
+		
+		public Step(LoadDriver.Operation operation, String itemName, int quantity, BigDecimal cash) {
+			this.operation = operation;
+			this.itemName = itemName;
+			this.quantity = quantity;
+			this.cash = cash;
+		}
+		
+		public LoadDriver.Operation getOperation() { return operation; }
+		public String getItemName() { return itemName; }
+		public int getQuantity() { return quantity; }
+		public BigDecimal getCash() { return cash; }
+	}
+}
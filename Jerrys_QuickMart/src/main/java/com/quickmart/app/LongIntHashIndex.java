@@ -0,0 +1,132 @@
+package com.quickmart.app;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from long keys to int values on primitive arrays (no boxing)
+ *
+ * ASSUMPTIONS:
+ * - Key 0 means "empty slot" and can't be stored; values are never negative (MISSING is -1)
+ * - Open addressing with linear probing over a power-of-two table, kept at most half full,
+ *   so a lookup usually touches one or two slots
+ * - Keys are mixed (the 64-bit finalizer of MurmurHash3) so sequential codes spread over the table
+ * - Entries are never removed
+ * - Not thread-safe: a shared index is filled before it is published and copied to change it
+ *   (see Inventory.getItemByBarcode)
+ */
+public class LongIntHashIndex {
+	public static final int MISSING = -1;
+	
+	private long[] keys;
+	private int[] values;
+	private int size;
+	
+	public LongIntHashIndex() {
+		this(16);
+	}
+	
+	/**
+	 * Creates an index sized for the expected number of entries
+	 */
+	public LongIntHashIndex(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) * 2;
+		keys = new long[capacity];
+		values = new int[capacity];
+	}
+	
+	/**
+	 * Maps the key to the value
+	 * Returns the previous value, or MISSING
+	 */
+	public int put(long key, int value) {
+		if (key == 0) {
+			throw new IllegalArgumentException("Key 0 is reserved");
+		}
+		if (value < 0) {
+			throw new IllegalArgumentException("Negative value: " + value);
+		}
+		if ((size + 1) * 2 > keys.length) {
+			resize(keys.length * 2);
+		}
+		int mask = keys.length - 1;
+		for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				int previous = values[slot];
+				values[slot] = value;
+				return previous;
+			}
+			if (keys[slot] == 0) {
+				keys[slot] = key;
+				values[slot] = value;
+				size++;
+				return MISSING;
+			}
+		}
+	}
+	
+	/**
+	 * Gets the value of the key, or MISSING
+	 */
+	public int get(long key) {
+		if (key == 0) {
+			return MISSING;
+		}
+		long[] table = keys;
+		int mask = table.length - 1;
+		for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+			long found = table[slot];
+			if (found == key) {
+				return values[slot];
+			}
+			if (found == 0) {
+				return MISSING;
+			}
+		}
+	}
+	
+	public boolean containsKey(long key) {
+		return get(key) != MISSING;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Creates an independent copy
+	 */
+	public LongIntHashIndex copy() {
+		LongIntHashIndex copy = new LongIntHashIndex(0);
+		copy.keys = Arrays.copyOf(keys, keys.length);
+		copy.values = Arrays.copyOf(values, values.length);
+		copy.size = size;
+		return copy;
+	}
+	
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new long[capacity];
+		values = new int[capacity];
+		int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != 0) {
+				int slot = mix(oldKeys[i]) & mask;
+				while (keys[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+	
+	private static int mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9a62c9ee7e5L;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+}
@@ -1,8 +1,16 @@
-package com.quickmart.app;
-
-public class Main {
-	public static void main(String[] args) {
-		MainApp app = new MainApp();
-		app.start();
-	}
-} 
\ No newline at end of file
+package com.quickmart.app;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class Main {
+	public static void main(String[] args) throws IOException {
+		// "--server [port]" hosts all lanes in this process instead of one console register
+		if (args.length > 0 && args[0].equals("--server")) {
+			RegisterServer.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+		MainApp app = new MainApp();
+		app.start();
+	}
+}
\ No newline at end of file
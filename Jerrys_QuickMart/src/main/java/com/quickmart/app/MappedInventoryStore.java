@@ -0,0 +1,237 @@
+package com.quickmart.app;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Live inventory in a memory-mapped file of fixed-size records, shared by every process that opens it
+ *
+ * ASSUMPTIONS:
+ * - Layout (little-endian): a HEADER_SIZE header ("QMINVDAT" magic, version, record size, record count)
+ *   followed by one RECORD_SIZE record per product, in product ID order (record N is product N)
+ * - Record: stock (int), flags (int, bit 0 = taxable), regular and member price in cents (long),
+ *   barcode (long), name length (short) and the name in UTF-8 (at most MAX_NAME_BYTES bytes)
+ * - Opening maps the file and reads the records; there is no text to parse
+ * - Stock is only changed in place, by atomic compare-and-set on the mapped int, so sales from
+ *   several processes on one machine never lose an update and see each other's stock immediately
+ * - Written pages reach the disk when the OS flushes them (surviving a process crash) or on force();
+ *   a machine crash can lose the latest stock changes
+ * - Names, prices and barcodes never change once written
+ * - Products are appended under an exclusive file lock on the header; other processes pick them up
+ *   on their next append or restart (see Inventory.addItem)
+ * - The file is created in one piece (temp file + atomic rename, see SnapshotFile), so a crash during
+ *   creation leaves no half-written store
+ */
+public class MappedInventoryStore implements Closeable {
+	public static final int HEADER_SIZE = 64;
+	public static final int RECORD_SIZE = 128;
+	public static final int MAX_NAME_BYTES = RECORD_SIZE - 34;
+	private static final long MAGIC = 0x5441_4456_4e49_4d51L; // "QMINVDAT" read little-endian
+	private static final int VERSION = 1;
+	private static final int COUNT_OFFSET = 16;
+	private static final int TAXABLE = 1;
+	private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+	
+	private final File file;
+	private final FileChannel channel;
+	private volatile MappedByteBuffer buffer;
+	
+	private MappedInventoryStore(File file, FileChannel channel, MappedByteBuffer buffer) {
+		this.file = file;
+		this.channel = channel;
+		this.buffer = buffer;
+	}
+	
+	/**
+	 * Writes a new store holding the given items, in order
+	 */
+	public static void create(File file, Collection<Item> items) throws IOException {
+		ByteBuffer content = ByteBuffer.allocate(HEADER_SIZE + items.size() * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		content.putLong(0, MAGIC).putInt(8, VERSION).putInt(12, RECORD_SIZE).putInt(COUNT_OFFSET, items.size());
+		int offset = HEADER_SIZE;
+		for (Item item : items) {
+			writeRecord(content, offset, item);
+			offset += RECORD_SIZE;
+		}
+		SnapshotFile.replace(file, false, content.array());
+	}
+	
+	/**
+	 * Maps an existing store for reading and writing
+	 */
+	public static MappedInventoryStore open(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			if (channel.size() < HEADER_SIZE) {
+				throw new IOException("Not an inventory store: " + file.getName());
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			if (buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION || buffer.getInt(12) != RECORD_SIZE) {
+				throw new IOException("Not an inventory store (or another version): " + file.getName());
+			}
+			MappedInventoryStore store = new MappedInventoryStore(file, channel, buffer);
+			if (HEADER_SIZE + (long) store.size() * RECORD_SIZE > channel.size()) {
+				throw new IOException("Inventory store is truncated: " + file.getName());
+			}
+			return store;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	public File getFile() {
+		return file;
+	}
+	
+	/**
+	 * Gets the number of products, including those appended by other processes
+	 */
+	public int size() {
+		return (int) INT.getVolatile(buffer, COUNT_OFFSET);
+	}
+	
+	/**
+	 * Gets the product with the given ID (starting at 1) as an Item whose stock lives in the record
+	 */
+	public Item item(int id) {
+		if (id < 1 || id > size()) {
+			throw new IndexOutOfBoundsException("No product " + id + " in " + file.getName());
+		}
+		MappedByteBuffer mapped = mapping(HEADER_SIZE + (long) id * RECORD_SIZE);
+		int offset = HEADER_SIZE + (id - 1) * RECORD_SIZE;
+		byte[] name = new byte[mapped.getShort(offset + 32)];
+		mapped.get(offset + 34, name);
+		return new MappedItem(mapped, offset, new String(name, StandardCharsets.UTF_8),
+			Money.toBigDecimal(mapped.getLong(offset + 8)), Money.toBigDecimal(mapped.getLong(offset + 16)),
+			(mapped.getInt(offset + 4) & TAXABLE) != 0, mapped.getLong(offset + 24));
+	}
+	
+	/**
+	 * Locks the store against appends from other processes until the lock is closed
+	 */
+	public FileLock lock() throws IOException {
+		return channel.lock(0, HEADER_SIZE, false);
+	}
+	
+	/**
+	 * Appends a product; the caller must hold lock()
+	 * Returns the product ID it was stored under
+	 */
+	public synchronized int append(Item item) throws IOException {
+		int id = size() + 1;
+		long end = HEADER_SIZE + (long) id * RECORD_SIZE;
+		ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		writeRecord(record, 0, item);
+		channel.write(record, end - RECORD_SIZE);
+		channel.force(false);
+		// The count is published last, so readers never see a product before its record
+		INT.setVolatile(mapping(end), COUNT_OFFSET, id);
+		return id;
+	}
+	
+	/**
+	 * Flushes the mapped stock counts to disk
+	 */
+	public void force() {
+		buffer.force();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		force();
+		channel.close();
+	}
+	
+	/**
+	 * Gets a mapping that covers the file up to the given end, mapping the file again if it grew
+	 */
+	private synchronized MappedByteBuffer mapping(long end) {
+		MappedByteBuffer mapped = buffer;
+		if (mapped.capacity() < end) {
+			try {
+				// Older mappings stay valid and share the same pages, so items made from them keep working
+				mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(end, channel.size()));
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot map " + file.getName() + ": " + e.getMessage(), e);
+			}
+			mapped.order(ByteOrder.LITTLE_ENDIAN);
+			buffer = mapped;
+		}
+		return mapped;
+	}
+	
+	private static void writeRecord(ByteBuffer target, int offset, Item item) throws IOException {
+		byte[] name = item.getName().getBytes(StandardCharsets.UTF_8);
+		if (name.length > MAX_NAME_BYTES) {
+			throw new IOException("Item name longer than " + MAX_NAME_BYTES + " bytes: " + item.getName());
+		}
+		target.putInt(offset, item.getQuantity());
+		target.putInt(offset + 4, item.isTaxable() ? TAXABLE : 0);
+		target.putLong(offset + 8, item.getRegularPriceCents());
+		target.putLong(offset + 16, item.getMemberPriceCents());
+		target.putLong(offset + 24, item.getBarcode());
+		target.putShort(offset + 32, (short) name.length);
+		target.put(offset + 34, name);
+	}
+	
+	/**
+	 * An item whose stock is the int at the start of its mapped record
+	 */
+	private static final class MappedItem extends Item {
+		private final MappedByteBuffer mapped;
+		private final int offset;
+		
+		MappedItem(MappedByteBuffer mapped, int offset, String name, BigDecimal regularPrice, BigDecimal memberPrice,
+				boolean isTaxable, long barcode) {
+			super(name, 0, regularPrice, memberPrice, isTaxable, barcode);
+			this.mapped = mapped;
+			this.offset = offset;
+		}
+		
+		@Override
+		public int getQuantity() {
+			return (int) INT.getVolatile(mapped, offset);
+		}
+		
+		@Override
+		public void setQuantity(int quantity) {
+			INT.setVolatile(mapped, offset, quantity);
+		}
+		
+		@Override
+		public void reduceStock(int quantity) {
+			tryReduceStock(quantity);
+		}
+		
+		@Override
+		public boolean tryReduceStock(int quantity) {
+			int current;
+			do {
+				current = (int) INT.getVolatile(mapped, offset);
+				if (current < quantity) {
+					return false;
+				}
+			} while (!INT.compareAndSet(mapped, offset, current, current - quantity));
+			return true;
+		}
+		
+		@Override
+		void restoreStock(int quantity) {
+			INT.getAndAdd(mapped, offset, quantity);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.quickmart.app;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers based on long cents
+ *
+ * ASSUMPTIONS:
+ * - All amounts are US dollars with exactly two decimal places (cents)
+ * - Tax rate is 6.5%, expressed as 650 basis points
+ * - Tax is rounded half-up to the nearest cent (0.5 cent rounds away from zero)
+ * - A cart's tax is computed once on its taxable subtotal, not summed from rounded line taxes
+ * - Amounts fit comfortably in a long (no overflow checks on cart-sized sums)
+ * - BigDecimal is only used at the boundaries (receipt, display, file persistence)
+ * - Fixed-point mode is opt-in through the "quickmart.money.fixedPoint" system property
+ */
+public final class Money {
+	public static final String FIXED_POINT_PROPERTY = "quickmart.money.fixedPoint";
+	public static final long TAX_RATE_BASIS_POINTS = 650;
+	private static final long BASIS_POINTS = 10_000;
+	
+	private Money() {
+	}
+	
+	/**
+	 * Checks if the long-cents money engine was enabled for this run
+	 */
+	public static boolean isFixedPointEnabled() {
+		return Boolean.getBoolean(FIXED_POINT_PROPERTY);
+	}
+	
+	/**
+	 * Converts a decimal amount to cents, rounding half-up
+	 */
+	public static long toCents(BigDecimal amount) {
+		return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+	}
+	
+	/**
+	 * Converts cents to a decimal amount with two decimal places
+	 */
+	public static BigDecimal toBigDecimal(long cents) {
+		return BigDecimal.valueOf(cents, 2);
+	}
+	
+	/**
+	 * Calculates the tax for a taxable amount, rounded half-up to the cent
+	 */
+	public static long taxCents(long taxableCents) {
+		if (taxableCents < 0) {
+			return -taxCents(-taxableCents);
+		}
+		return (taxableCents * TAX_RATE_BASIS_POINTS + BASIS_POINTS / 2) / BASIS_POINTS;
+	}
+}
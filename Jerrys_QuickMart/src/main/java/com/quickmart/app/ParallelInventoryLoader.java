@@ -0,0 +1,136 @@
+package com.quickmart.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Loads very large inventory files by memory-mapping them and parsing chunks in parallel
+ *
+ * ASSUMPTIONS:
+ * - The file is UTF-8, so a '\n' byte always marks a line boundary
+ * - Each chunk ends right after a '\n' (or at end of file), so no line is split between chunks
+ * - Chunks are parsed on the common fork-join pool by InventoryParser
+ * - Items and error messages are delivered in file order once all chunks are parsed,
+ *   so duplicate names keep "last line wins" and invalid lines are logged in order
+ * - Malformed UTF-8 bytes are replaced, like FileReader does
+ */
+public class ParallelInventoryLoader {
+	public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+	
+	private ParallelInventoryLoader() {
+	}
+	
+	/**
+	 * Loads the file, delivering items and errors in file order
+	 * Returns the number of items produced
+	 */
+	public static int load(File file, Consumer<Item> items, Consumer<String> errors) throws IOException {
+		return load(file, DEFAULT_CHUNK_SIZE, items, errors);
+	}
+	
+	/**
+	 * Loads the file using chunks of roughly the given size in bytes
+	 */
+	public static int load(File file, int chunkSize, Consumer<Item> items, Consumer<String> errors) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			List<ChunkTask> chunks = splitIntoChunks(channel, chunkSize);
+			ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					invokeAll(chunks);
+				}
+			});
+			
+			int count = 0;
+			for (ChunkTask chunk : chunks) {
+				if (chunk.failure != null) {
+					throw chunk.failure;
+				}
+				chunk.errors.forEach(errors);
+				chunk.items.forEach(items);
+				count += chunk.items.size();
+			}
+			return count;
+		}
+	}
+	
+	/**
+	 * Splits the file into chunks that end on line boundaries
+	 */
+	private static List<ChunkTask> splitIntoChunks(FileChannel channel, int chunkSize) throws IOException {
+		List<ChunkTask> chunks = new ArrayList<>();
+		long size = channel.size();
+		ByteBuffer probe = ByteBuffer.allocate(256);
+		long start = 0;
+		while (start < size) {
+			long end = Math.min(start + chunkSize, size);
+			// Extend the chunk up to and including the next newline
+			while (end < size) {
+				probe.clear();
+				int read = channel.read(probe, end);
+				int newline = -1;
+				for (int i = 0; i < read; i++) {
+					if (probe.get(i) == '\n') {
+						newline = i;
+						break;
+					}
+				}
+				if (newline >= 0) {
+					end += newline + 1;
+					break;
+				}
+				end += Math.max(read, 0);
+			}
+			chunks.add(new ChunkTask(channel, start, end - start));
+			start = end;
+		}
+		return chunks;
+	}
+	
+	/**
+	 * Parses one mapped region of the file
+	 */
+	private static class ChunkTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final FileChannel channel;
+		private final long position;
+		private final long length;
+		private final List<Item> items = new ArrayList<>();
+		private final List<String> errors = new ArrayList<>();
+		private IOException failure;
+		
+		ChunkTask(FileChannel channel, long position, long length) {
+			this.channel = channel;
+			this.position = position;
+			this.length = length;
+		}
+		
+		@Override
+		protected void compute() {
+			try {
+				MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+				CharBuffer chars = StandardCharsets.UTF_8.newDecoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE)
+					.decode(mapped);
+				InventoryParser.parse(chars.array(), chars.arrayOffset(), chars.arrayOffset() + chars.limit(),
+					items::add, errors::add);
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+	}
+}
@@ -0,0 +1,317 @@
+package com.quickmart.app;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive prefix and typo-tolerant search over product names
+ *
+ * ASSUMPTIONS:
+ * - Products are identified by their product ID (see Inventory.getItemById); names never change
+ * - Names and queries are lower-cased (Locale.ROOT) and split into words on whitespace
+ * - A product matches when every query word is the start of one of its words ("red bu" and "bull"
+ *   both find "Red Bull"), within the allowed typos (insert, delete, replace or swap of neighbours)
+ * - Allowed typos grow with each query word: none up to 2 characters, 1 up to 5, 2 beyond
+ * - Catalogs repeat words a lot, so the index works on the distinct words: a trigram index over the
+ *   words (each padded with two leading spaces) finds the words close to a query word, and a list of
+ *   product IDs per word gives the products
+ * - A word can only be within k typos of a query word if it shares at least (query trigrams - 4k) of
+ *   them, so only those words are checked with an edit distance; when that bound is 0 or less (short
+ *   queries, e.g. "xed" for "red") the candidates are the words with one of the query's first k + 1
+ *   letters among their first 2k + 1 (at least one of those letters survives k typos), found through
+ *   a second index of words by letter and position
+ * - Results: fewest typos first, then products whose name starts with the first query word, then by ID
+ * - Products can be added at any time; searches and additions may run from several lanes at once
+ */
+public class ProductSearchIndex {
+	private static final int[] NO_PRODUCTS = new int[0];
+	private static final int NO_MATCH = Integer.MAX_VALUE;
+	// Letter positions indexed per word: 2k + 1 for the most typos search() allows (2)
+	private static final int LEADING_POSITIONS = 5;
+	
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Integer> wordIds = new HashMap<>();
+	private final List<String> words = new ArrayList<>();
+	// Product IDs per word, and word IDs per trigram
+	private final List<Postings> productsByWord = new ArrayList<>();
+	private final Map<Long, Postings> wordsByTrigram = new HashMap<>();
+	// Word IDs by (letter, position) of their first LEADING_POSITIONS letters
+	private final Map<Integer, Postings> wordsByLeadingLetter = new HashMap<>();
+	// Word IDs of every product's name, in order, by product ID
+	private int[][] productWords = new int[16][];
+	
+	/**
+	 * Indexes a product name under its product ID
+	 */
+	public void add(int id, String name) {
+		String[] nameWords = split(name);
+		lock.writeLock().lock();
+		try {
+			if (id >= productWords.length) {
+				productWords = Arrays.copyOf(productWords, Math.max(productWords.length * 2, id + 1));
+			}
+			int[] ids = new int[nameWords.length];
+			for (int i = 0; i < nameWords.length; i++) {
+				ids[i] = wordId(nameWords[i]);
+				Postings products = productsByWord.get(ids[i]);
+				// A word repeated in one name lists the product once
+				if (products.size == 0 || products.ids[products.size - 1] != id) {
+					products.add(id);
+				}
+			}
+			productWords[id] = ids;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Finds products with words starting exactly with the query words, best matches first
+	 */
+	public int[] findByPrefix(String query, int limit) {
+		String[] queryWords = split(query);
+		return find(queryWords, new int[queryWords.length], limit);
+	}
+	
+	/**
+	 * Finds products with words starting with the query words, allowing typos, best matches first
+	 */
+	public int[] search(String query, int limit) {
+		String[] queryWords = split(query);
+		int[] typos = new int[queryWords.length];
+		for (int i = 0; i < queryWords.length; i++) {
+			int length = queryWords[i].length();
+			typos[i] = length <= 2 ? 0 : length <= 5 ? 1 : 2;
+		}
+		return find(queryWords, typos, limit);
+	}
+	
+	private int[] find(String[] queryWords, int[] typos, int limit) {
+		if (queryWords.length == 0 || limit <= 0) {
+			return NO_PRODUCTS;
+		}
+		lock.readLock().lock();
+		try {
+			// Words close to each query word, with their distance
+			List<Map<Integer, Integer>> matches = new ArrayList<>(queryWords.length);
+			int rarest = 0;
+			long rarestProducts = Long.MAX_VALUE;
+			for (int q = 0; q < queryWords.length; q++) {
+				Map<Integer, Integer> close = matchWords(queryWords[q], typos[q]);
+				if (close.isEmpty()) {
+					return NO_PRODUCTS;
+				}
+				long products = 0;
+				for (int word : close.keySet()) {
+					products += productsByWord.get(word).size;
+				}
+				if (products < rarestProducts) {
+					rarest = q;
+					rarestProducts = products;
+				}
+				matches.add(close);
+			}
+			
+			// Check the products of the rarest query word against the others, keeping the best ranks
+			long[] best = new long[limit];
+			int found = 0;
+			BitSet seen = new BitSet(productWords.length);
+			for (int word : matches.get(rarest).keySet()) {
+				Postings products = productsByWord.get(word);
+				for (int i = 0; i < products.size; i++) {
+					int product = products.ids[i];
+					if (seen.get(product)) {
+						continue;
+					}
+					seen.set(product);
+					long rank = rank(product, matches);
+					if (rank == NO_MATCH || (found == limit && rank >= best[limit - 1])) {
+						continue;
+					}
+					// Insert into the sorted top list
+					int position = found < limit ? found++ : limit - 1;
+					while (position > 0 && best[position - 1] > rank) {
+						best[position] = best[position - 1];
+						position--;
+					}
+					best[position] = rank;
+				}
+			}
+			int[] result = new int[found];
+			for (int i = 0; i < found; i++) {
+				result[i] = (int) best[i];
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Ranks a product as (typos, name start, ID), or NO_MATCH if a query word matches none of its words
+	 */
+	private long rank(int product, List<Map<Integer, Integer>> matches) {
+		int[] nameWords = productWords[product];
+		long typos = 0;
+		for (Map<Integer, Integer> close : matches) {
+			int bestDistance = NO_MATCH;
+			for (int word : nameWords) {
+				Integer distance = close.get(word);
+				if (distance != null && distance < bestDistance) {
+					bestDistance = distance;
+				}
+			}
+			if (bestDistance == NO_MATCH) {
+				return NO_MATCH;
+			}
+			typos += bestDistance;
+		}
+		long laterWord = matches.get(0).containsKey(nameWords[0]) ? 0 : 1;
+		return (typos << 40) | (laterWord << 32) | product;
+	}
+	
+	/**
+	 * Finds the indexed words starting with the query word within the allowed typos
+	 */
+	private Map<Integer, Integer> matchWords(String queryWord, int maxTypos) {
+		Set<Long> trigrams = trigrams(queryWord);
+		// A typo changes at most 3 trigrams, a swap of neighbours at most 4
+		int required = trigrams.size() - 4 * maxTypos;
+		Map<Integer, Integer> close = new HashMap<>();
+		if (required <= 0) {
+			// The typos may change every trigram (e.g. the first letter of a short word)
+			BitSet checked = new BitSet(words.size());
+			for (int i = 0; i < Math.min(queryWord.length(), maxTypos + 1); i++) {
+				for (int position = 0; position <= 2 * maxTypos; position++) {
+					Postings list = wordsByLeadingLetter.get(leadingKey(queryWord.charAt(i), position));
+					for (int j = 0; list != null && j < list.size; j++) {
+						int word = list.ids[j];
+						if (!checked.get(word)) {
+							checked.set(word);
+							int distance = prefixDistance(queryWord, words.get(word), 0, maxTypos);
+							if (distance <= maxTypos) {
+								close.put(word, distance);
+							}
+						}
+					}
+				}
+			}
+			return close;
+		}
+		Map<Integer, Integer> shared = new HashMap<>();
+		for (long trigram : trigrams) {
+			Postings list = wordsByTrigram.get(trigram);
+			if (list != null) {
+				for (int i = 0; i < list.size; i++) {
+					shared.merge(list.ids[i], 1, Integer::sum);
+				}
+			}
+		}
+		for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+			if (candidate.getValue() >= required) {
+				int distance = prefixDistance(queryWord, words.get(candidate.getKey()), 0, maxTypos);
+				if (distance <= maxTypos) {
+					close.put(candidate.getKey(), distance);
+				}
+			}
+		}
+		return close;
+	}
+	
+	private int wordId(String word) {
+		Integer id = wordIds.get(word);
+		if (id == null) {
+			id = words.size();
+			words.add(word);
+			wordIds.put(word, id);
+			productsByWord.add(new Postings());
+			for (long trigram : trigrams(word)) {
+				wordsByTrigram.computeIfAbsent(trigram, key -> new Postings()).add(id);
+			}
+			for (int position = 0; position < Math.min(word.length(), LEADING_POSITIONS); position++) {
+				wordsByLeadingLetter.computeIfAbsent(leadingKey(word.charAt(position), position), key -> new Postings()).add(id);
+			}
+		}
+		return id;
+	}
+	
+	/**
+	 * Smallest edit distance between the query and any prefix of the text starting at the given offset,
+	 * or maxTypos + 1 if it is larger (optimal string alignment, so a swap of neighbours is one typo)
+	 */
+	static int prefixDistance(String query, String text, int start, int maxTypos) {
+		int rows = query.length();
+		int columns = Math.min(text.length() - start, rows + maxTypos);
+		int[] previous2 = new int[columns + 1];
+		int[] previous = new int[columns + 1];
+		int[] current = new int[columns + 1];
+		for (int j = 0; j <= columns; j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= rows; i++) {
+			current[0] = i;
+			int rowMinimum = i;
+			char q = query.charAt(i - 1);
+			for (int j = 1; j <= columns; j++) {
+				char t = text.charAt(start + j - 1);
+				int cost = q == t ? 0 : 1;
+				int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+				if (i > 1 && j > 1 && q == text.charAt(start + j - 2) && query.charAt(i - 2) == t) {
+					value = Math.min(value, previous2[j - 2] + 1);
+				}
+				current[j] = value;
+				rowMinimum = Math.min(rowMinimum, value);
+			}
+			if (rowMinimum > maxTypos) {
+				return maxTypos + 1;
+			}
+			int[] recycled = previous2;
+			previous2 = previous;
+			previous = current;
+			current = recycled;
+		}
+		// The query may end anywhere in the text: take the best prefix
+		int best = maxTypos + 1;
+		for (int j = 0; j <= columns; j++) {
+			best = Math.min(best, previous[j]);
+		}
+		return best;
+	}
+	
+	private static int leadingKey(char letter, int position) {
+		return letter * LEADING_POSITIONS + position;
+	}
+	
+	private static String[] split(String text) {
+		String normalized = text.trim().toLowerCase(Locale.ROOT);
+		return normalized.isEmpty() ? new String[0] : normalized.split("\\s+");
+	}
+	
+	/**
+	 * Trigrams of a word padded with two leading spaces, so its first letters have trigrams of their own
+	 */
+	private static Set<Long> trigrams(String word) {
+		Set<Long> trigrams = new HashSet<>();
+		String padded = "  " + word;
+		for (int i = 0; i + 3 <= padded.length(); i++) {
+			trigrams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+		}
+		return trigrams;
+	}
+	
+	/**
+	 * Growable list of IDs
+	 */
+	private static class Postings {
+		private int[] ids = new int[4];
+		private int size;
+		
+		void add(int id) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+		}
+	}
+}
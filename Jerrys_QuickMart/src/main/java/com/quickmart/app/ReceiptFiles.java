@@ -0,0 +1,79 @@
+package com.quickmart.app;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps every receipt in its own "transaction_<number>_<yyyyMMdd>.txt" file (the original layout)
+ *
+ * ASSUMPTIONS:
+ * - Files live directly in the given directory and use the default system encoding
+ * - Each file is fsynced when written; sync() flushes the directory entries
+ * - Looking a receipt up by number lists the directory (O(number of receipts))
+ */
+public class ReceiptFiles implements ReceiptStore {
+	static final Pattern FILE_PATTERN = Pattern.compile("transaction_(\\d+)_\\d{8}\\.txt");
+	private final File directory;
+	private volatile boolean dirty;
+	
+	public ReceiptFiles(File directory) {
+		this.directory = directory;
+	}
+	
+	@Override
+	public void append(Receipt receipt, String content) throws IOException {
+		try (FileOutputStream out = new FileOutputStream(new File(directory, receipt.getFileName()))) {
+			out.write(content.getBytes(Charset.defaultCharset()));
+			out.getFD().sync();
+		}
+		dirty = true;
+	}
+	
+	@Override
+	public void sync() {
+		if (dirty) {
+			dirty = false;
+			SnapshotFile.syncDirectory(directory);
+		}
+	}
+	
+	@Override
+	public String read(int transactionNumber) throws IOException {
+		String prefix = String.format("transaction_%06d_", transactionNumber);
+		File[] files = directory.listFiles((dir, name) -> name.startsWith(prefix) && FILE_PATTERN.matcher(name).matches());
+		if (files == null || files.length == 0) {
+			return null;
+		}
+		return new String(Files.readAllBytes(files[0].toPath()), Charset.defaultCharset());
+	}
+	
+	@Override
+	public int getLastTransactionNumber() {
+		int last = 0;
+		File[] files = directory.listFiles((dir, name) -> FILE_PATTERN.matcher(name).matches());
+		if (files != null) {
+			for (File file : files) {
+				Matcher matcher = FILE_PATTERN.matcher(file.getName());
+				if (matcher.matches()) {
+					last = Math.max(last, Integer.parseInt(matcher.group(1)));
+				}
+			}
+		}
+		return last;
+	}
+	
+	@Override
+	public String locationOf(Receipt receipt) {
+		return receipt.getFileName();
+	}
+	
+	@Override
+	public void close() {
+		sync();
+	}
+}
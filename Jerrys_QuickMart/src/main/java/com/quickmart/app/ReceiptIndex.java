@@ -0,0 +1,171 @@
+package com.quickmart.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Searchable index of receipt files by date, transaction number and item (SKU)
+ *
+ * ASSUMPTIONS:
+ * - One entry per receipt file: transaction number, date, file path, total in cents and the item names sold
+ * - Transaction numbers are not unique across files (e.g. after the counter was reset), so lookups return lists
+ * - Dates are kept sorted so a date range is a sub-map; items are looked up by exact name, case-insensitively
+ * - Entries from several partial indexes (built in parallel) are combined with addAll
+ * - The index is saved as a text file (one tab-separated line per entry) through SnapshotFile, so a
+ *   damaged index is detected and the previous copy is used; item names never contain tabs or newlines
+ */
+public class ReceiptIndex {
+	public static final String FILE_NAME = "receipt_index.txt";
+	private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+	
+	private final List<Entry> entries = new ArrayList<>();
+	private final Map<Integer, List<Entry>> byTransaction = new HashMap<>();
+	private final TreeMap<LocalDate, List<Entry>> byDate = new TreeMap<>();
+	private final Map<String, List<Entry>> byItem = new HashMap<>();
+	
+	/**
+	 * Adds a receipt to the index
+	 */
+	public void add(Entry entry) {
+		entries.add(entry);
+		byTransaction.computeIfAbsent(entry.transactionNumber, number -> new ArrayList<>()).add(entry);
+		byDate.computeIfAbsent(entry.date, date -> new ArrayList<>()).add(entry);
+		for (String name : entry.itemNames) {
+			List<Entry> receipts = byItem.computeIfAbsent(itemKey(name), key -> new ArrayList<>());
+			// A name listed twice on one receipt still finds that receipt once
+			if (receipts.isEmpty() || receipts.get(receipts.size() - 1) != entry) {
+				receipts.add(entry);
+			}
+		}
+	}
+	
+	/**
+	 * Adds every entry of another index
+	 */
+	public void addAll(ReceiptIndex other) {
+		for (Entry entry : other.entries) {
+			add(entry);
+		}
+	}
+	
+	public int size() {
+		return entries.size();
+	}
+	
+	/**
+	 * Finds the receipts with the given transaction number
+	 */
+	public List<Entry> findByTransaction(int transactionNumber) {
+		return Collections.unmodifiableList(byTransaction.getOrDefault(transactionNumber, Collections.emptyList()));
+	}
+	
+	/**
+	 * Finds the receipts of one day
+	 */
+	public List<Entry> findByDate(LocalDate date) {
+		return Collections.unmodifiableList(byDate.getOrDefault(date, Collections.emptyList()));
+	}
+	
+	/**
+	 * Finds the receipts from one day to another, both included, in date order
+	 */
+	public List<Entry> findByDate(LocalDate from, LocalDate to) {
+		List<Entry> found = new ArrayList<>();
+		for (List<Entry> day : byDate.subMap(from, true, to, true).values()) {
+			found.addAll(day);
+		}
+		return found;
+	}
+	
+	/**
+	 * Finds the receipts that sold the named item
+	 */
+	public List<Entry> findByItem(String itemName) {
+		return Collections.unmodifiableList(byItem.getOrDefault(itemKey(itemName), Collections.emptyList()));
+	}
+	
+	private static String itemKey(String name) {
+		return name.trim().toLowerCase(Locale.ROOT);
+	}
+	
+	/**
+	 * Saves the index to a file
+	 */
+	public void save(File file) throws IOException {
+		StringBuilder content = new StringBuilder(entries.size() * 64);
+		for (Entry entry : entries) {
+			content.append(entry.transactionNumber).append('\t')
+				.append(entry.date.format(DAY_FORMAT)).append('\t')
+				.append(entry.path).append('\t')
+				.append(entry.totalCents);
+			for (String name : entry.itemNames) {
+				content.append('\t').append(name);
+			}
+			content.append('\n');
+		}
+		SnapshotFile.write(file, content.toString());
+	}
+	
+	/**
+	 * Loads an index saved by save()
+	 * Returns an empty index if there is none
+	 */
+	public static ReceiptIndex load(File file) throws IOException {
+		ReceiptIndex index = new ReceiptIndex();
+		String content;
+		try {
+			content = SnapshotFile.readVerified(file);
+		} catch (IOException e) {
+			System.err.println(e.getMessage() + ", loading backup: " + SnapshotFile.backupOf(file).getName());
+			content = SnapshotFile.readVerified(SnapshotFile.backupOf(file));
+		}
+		if (content == null) {
+			return index;
+		}
+		for (String line : content.split("\n")) {
+			if (line.isEmpty()) {
+				continue;
+			}
+			String[] fields = line.split("\t");
+			if (fields.length < 4) {
+				throw new IOException("Invalid receipt index line: " + line);
+			}
+			index.add(new Entry(Integer.parseInt(fields[0]), LocalDate.parse(fields[1], DAY_FORMAT), fields[2],
+				Long.parseLong(fields[3]), Arrays.asList(fields).subList(4, fields.length)));
+		}
+		return index;
+	}
+	
+	/**
+	 * One indexed receipt
+	 */
+	public static class Entry {
+		private final int transactionNumber;
+		private final LocalDate date;
+		private final String path;
+		private final long totalCents;
+		private final List<String> itemNames;
+		
+		public Entry(int transactionNumber, LocalDate date, String path, long totalCents, List<String> itemNames) {
+			this.transactionNumber = transactionNumber;
+			this.date = date;
+			this.path = path;
+			this.totalCents = totalCents;
+			this.itemNames = List.copyOf(itemNames);
+		}
+		
+		public int getTransactionNumber() { return transactionNumber; }
+		public LocalDate getDate() { return date; }
+		public String getPath() { return path; }
+		public long getTotalCents() { return totalCents; }
+		public List<String> getItemNames() { return itemNames; }
+		
+		@Override
+		public String toString() {
+			return String.format("%06d  %s  $%s  %s", transactionNumber, date, Money.toBigDecimal(totalCents), path);
+		}
+	}
+}
@@ -0,0 +1,248 @@
+package com.quickmart.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only receipt log split into segments, with an index for O(1) lookup by transaction number
+ *
+ * ASSUMPTIONS:
+ * - All files live in one directory: segments "segment_<id>_<yyyyMMdd>.log" and the index "receipts.idx"
+ * - A new segment starts when the receipt's day changes or the current one would grow past the size limit
+ * - A record is the header line "#RECEIPT <number> <length> <crc32>" followed by the receipt text (UTF-8),
+ *   so segments stay readable with any text viewer
+ * - The index holds one fixed 16-byte slot per transaction number at offset number * 16:
+ *   segment id (0 = no receipt), record length and record offset
+ * - sync() forces the segment before the index, so an index slot never outlives its record;
+ *   a record torn by a crash has no slot and is skipped by lookups
+ * - Every receipt is also appended as a binary TransactionRecord to the day's "sales_<yyyyMMdd>.bin"
+ *   (see TransactionRecordLog), synced together with the segment
+ * - Records are checked against their header on read; a mismatch is reported as an IOException
+ * - All methods are synchronized; the background ReceiptWriter is the usual single writer
+ */
+public class ReceiptJournal implements ReceiptStore {
+	public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+	static final int INDEX_SLOT_BYTES = 16;
+	static final String INDEX_FILE = "receipts.idx";
+	private static final Pattern SEGMENT_PATTERN = Pattern.compile("segment_(\\d{6})_(\\d{8})\\.log");
+	private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+	
+	private final File directory;
+	private final long maxSegmentBytes;
+	private final FileChannel index;
+	private final TransactionRecordLog records;
+	private final Map<Integer, File> segmentFiles = new HashMap<>();
+	private final ByteBuffer slot = ByteBuffer.allocate(INDEX_SLOT_BYTES);
+	private FileChannel segment;
+	private int segmentId;
+	private String segmentDay;
+	private long segmentSize;
+	private boolean dirty;
+	private boolean newFiles;
+	
+	public ReceiptJournal(File directory, long maxSegmentBytes) throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Cannot create receipt directory " + directory);
+		}
+		this.directory = directory;
+		this.maxSegmentBytes = maxSegmentBytes;
+		this.index = FileChannel.open(new File(directory, INDEX_FILE).toPath(),
+			StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.records = new TransactionRecordLog(directory);
+		
+		// Continue in the newest segment
+		File[] files = directory.listFiles((dir, name) -> SEGMENT_PATTERN.matcher(name).matches());
+		if (files != null) {
+			for (File file : files) {
+				Matcher matcher = SEGMENT_PATTERN.matcher(file.getName());
+				if (matcher.matches()) {
+					int id = Integer.parseInt(matcher.group(1));
+					segmentFiles.put(id, file);
+					if (id > segmentId) {
+						segmentId = id;
+						segmentDay = matcher.group(2);
+					}
+				}
+			}
+		}
+		if (segmentId > 0) {
+			segment = openSegment(segmentFiles.get(segmentId));
+			segmentSize = segment.size();
+		}
+	}
+	
+	@Override
+	public synchronized void append(Receipt receipt, String content) throws IOException {
+		byte[] body = content.getBytes(StandardCharsets.UTF_8);
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		byte[] header = String.format("#RECEIPT %06d %d %08x\n", receipt.getTransactionNumber(), body.length, crc.getValue())
+			.getBytes(StandardCharsets.US_ASCII);
+		int recordLength = header.length + body.length;
+		
+		String day = receipt.getDateTime().format(DAY_FORMAT);
+		if (segment == null || !day.equals(segmentDay)
+				|| (segmentSize > 0 && segmentSize + recordLength > maxSegmentBytes)) {
+			startSegment(day);
+		}
+		long offset = segmentSize;
+		writeFully(segment, ByteBuffer.wrap(header), offset);
+		writeFully(segment, ByteBuffer.wrap(body), offset + header.length);
+		segmentSize += recordLength;
+		
+		slot.clear();
+		slot.putInt(segmentId).putInt(recordLength).putLong(offset).flip();
+		writeFully(index, slot, (long) receipt.getTransactionNumber() * INDEX_SLOT_BYTES);
+		records.append(receipt);
+		dirty = true;
+	}
+	
+	@Override
+	public synchronized void sync() throws IOException {
+		if (dirty) {
+			segment.force(false);
+			records.sync();
+			index.force(false);
+			dirty = false;
+		}
+		if (newFiles) {
+			SnapshotFile.syncDirectory(directory);
+			newFiles = false;
+		}
+	}
+	
+	@Override
+	public synchronized String read(int transactionNumber) throws IOException {
+		if (transactionNumber <= 0 || !readSlot(transactionNumber)) {
+			return null;
+		}
+		int id = slot.getInt(0);
+		int recordLength = slot.getInt(4);
+		long offset = slot.getLong(8);
+		File file = segmentFiles.get(id);
+		if (file == null) {
+			return null;
+		}
+		
+		ByteBuffer record = ByteBuffer.allocate(recordLength);
+		if (id == segmentId) {
+			readFully(segment, record, offset);
+		} else {
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				readFully(channel, record, offset);
+			}
+		}
+		return decode(record.array(), transactionNumber, file);
+	}
+	
+	@Override
+	public synchronized int getLastTransactionNumber() throws IOException {
+		for (long number = index.size() / INDEX_SLOT_BYTES - 1; number > 0; number--) {
+			if (readSlot((int) number)) {
+				return (int) number;
+			}
+		}
+		return 0;
+	}
+	
+	@Override
+	public String locationOf(Receipt receipt) {
+		return String.format("receipt journal %s (transaction %06d)", directory.getName(), receipt.getTransactionNumber());
+	}
+	
+	@Override
+	public synchronized void close() throws IOException {
+		sync();
+		if (segment != null) {
+			segment.close();
+		}
+		index.close();
+		records.close();
+	}
+	
+	/**
+	 * Gets the binary record files written next to the segments
+	 */
+	public TransactionRecordLog getRecords() {
+		return records;
+	}
+	
+	/**
+	 * Reads a transaction's index slot into the slot buffer
+	 * Returns false if the transaction has no receipt
+	 */
+	private boolean readSlot(int transactionNumber) throws IOException {
+		long position = (long) transactionNumber * INDEX_SLOT_BYTES;
+		if (position + INDEX_SLOT_BYTES > index.size()) {
+			return false;
+		}
+		slot.clear();
+		readFully(index, slot, position);
+		return slot.getInt(0) != 0;
+	}
+	
+	/**
+	 * Checks a record against its header and returns the receipt text
+	 */
+	private static String decode(byte[] record, int transactionNumber, File file) throws IOException {
+		int newline = 0;
+		while (newline < record.length && record[newline] != '\n') {
+			newline++;
+		}
+		String[] header = new String(record, 0, newline, StandardCharsets.US_ASCII).split(" ");
+		int bodyLength = record.length - newline - 1;
+		CRC32 crc = new CRC32();
+		crc.update(record, newline + 1, Math.max(bodyLength, 0));
+		if (header.length != 4 || !header[0].equals("#RECEIPT")
+				|| !header[1].equals(String.format("%06d", transactionNumber))
+				|| !header[2].equals(Integer.toString(bodyLength))
+				|| !header[3].equals(String.format("%08x", crc.getValue()))) {
+			throw new IOException("Corrupted receipt record for transaction " + transactionNumber + " in " + file.getName());
+		}
+		return new String(record, newline + 1, bodyLength, StandardCharsets.UTF_8);
+	}
+	
+	private void startSegment(String day) throws IOException {
+		if (segment != null) {
+			segment.force(false);
+			segment.close();
+		}
+		segmentId++;
+		segmentDay = day;
+		File file = new File(directory, String.format("segment_%06d_%s.log", segmentId, day));
+		segmentFiles.put(segmentId, file);
+		segment = openSegment(file);
+		segmentSize = segment.size();
+		newFiles = true;
+	}
+	
+	private static FileChannel openSegment(File file) throws IOException {
+		return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+	}
+	
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+	
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new IOException("Receipt record extends past the end of its segment");
+			}
+			position += read;
+		}
+	}
+}
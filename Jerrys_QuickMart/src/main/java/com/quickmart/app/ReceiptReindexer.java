@@ -0,0 +1,227 @@
+package com.quickmart.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command-line tool that rebuilds the receipt index from historical receipt files, in parallel
+ *
+ * ASSUMPTIONS:
+ * - Receipt files are "transaction_<number>_<yyyyMMdd>.txt" anywhere below the given folder, in the
+ *   default system encoding, with the layout Receipt.generateReceiptContent writes
+ * - The receipt date comes from the file name; the rest is read by ReceiptTextParser
+ * - Files are split into ranges parsed on a fork-join pool; each range builds its own partial index,
+ *   and partial indexes are combined in file order when ranges are joined, so no locking is needed
+ * - A file that can't be read or parsed is counted as malformed and listed, never indexed
+ * - The index is written to "receipt_index.txt" in the receipts folder unless another file is given
+ *
+ * Usage: ReceiptReindexer <receipts folder> [--threads N] [--index file]
+ *        [--transaction N] [--date yyyyMMdd[..yyyyMMdd]] [--item name]
+ */
+public class ReceiptReindexer {
+	private static final Pattern FILE_PATTERN = Pattern.compile("transaction_(\\d+)_(\\d{8})\\.txt");
+	private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+	private static final int FILES_PER_TASK = 64;
+	
+	private ReceiptReindexer() {
+	}
+	
+	public static void main(String[] args) {
+		if (args.length == 0 || args.length % 2 == 0) {
+			System.err.println("Usage: ReceiptReindexer <receipts folder> [--threads N] [--index file]"
+				+ " [--transaction N] [--date yyyyMMdd[..yyyyMMdd]] [--item name]");
+			System.exit(2);
+		}
+		File folder = new File(args[0]);
+		File indexFile = new File(folder, ReceiptIndex.FILE_NAME);
+		int threads = Runtime.getRuntime().availableProcessors();
+		List<String[]> queries = new ArrayList<>();
+		for (int i = 1; i < args.length; i += 2) {
+			switch (args[i]) {
+				case "--threads":
+					threads = Integer.parseInt(args[i + 1]);
+					break;
+				case "--index":
+					indexFile = new File(args[i + 1]);
+					break;
+				case "--transaction":
+				case "--date":
+				case "--item":
+					queries.add(new String[] { args[i], args[i + 1] });
+					break;
+				default:
+					System.err.println("Unknown option: " + args[i]);
+					System.exit(2);
+			}
+		}
+		
+		try {
+			Result result = reindex(folder.toPath(), threads);
+			result.index.save(indexFile);
+			System.out.println(result.summary());
+			for (String malformed : result.malformed) {
+				System.out.println("Malformed: " + malformed);
+			}
+			System.out.println("Index saved as: " + indexFile.getPath());
+			for (String[] query : queries) {
+				printQuery(result.index, query[0], query[1]);
+			}
+		} catch (IOException e) {
+			System.err.println("Error reindexing receipts: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * Parses every receipt file below the folder using the given number of threads
+	 */
+	public static Result reindex(Path folder, int threads) throws IOException {
+		long start = System.nanoTime();
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(folder)) {
+			files = walk.filter(path -> FILE_PATTERN.matcher(path.getFileName().toString()).matches())
+				.sorted()
+				.collect(Collectors.toList());
+		}
+		
+		ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+		Result result;
+		try {
+			result = pool.invoke(new ParseTask(files, 0, files.size()));
+		} finally {
+			pool.shutdown();
+		}
+		result.files = files.size();
+		result.elapsedNanos = System.nanoTime() - start;
+		return result;
+	}
+	
+	/**
+	 * Parses one receipt file into an index entry
+	 * Returns null if the file is not a valid receipt
+	 */
+	static ReceiptIndex.Entry parseFile(Path file, byte[] bytes) {
+		Matcher matcher = FILE_PATTERN.matcher(file.getFileName().toString());
+		if (!matcher.matches()) {
+			return null;
+		}
+		ReceiptTextParser.ParsedReceipt receipt = ReceiptTextParser.parse(new String(bytes, Charset.defaultCharset()));
+		if (receipt == null || receipt.getTransactionNumber() != Integer.parseInt(matcher.group(1))) {
+			return null;
+		}
+		List<String> names = new ArrayList<>(receipt.getLineCount());
+		for (int line = 0; line < receipt.getLineCount(); line++) {
+			names.add(receipt.getName(line));
+		}
+		return new ReceiptIndex.Entry(receipt.getTransactionNumber(), LocalDate.parse(matcher.group(2), DAY_FORMAT),
+			file.toString(), receipt.getSubtotalCents() + receipt.getTaxCents(), names);
+	}
+	
+	private static void printQuery(ReceiptIndex index, String option, String value) {
+		List<ReceiptIndex.Entry> found;
+		if (option.equals("--transaction")) {
+			found = index.findByTransaction(Integer.parseInt(value));
+		} else if (option.equals("--item")) {
+			found = index.findByItem(value);
+		} else {
+			String[] range = value.split("\\.\\.");
+			LocalDate from = LocalDate.parse(range[0], DAY_FORMAT);
+			found = index.findByDate(from, range.length > 1 ? LocalDate.parse(range[1], DAY_FORMAT) : from);
+		}
+		System.out.println(option.substring(2) + " " + value + ": " + found.size() + " receipt(s)");
+		for (ReceiptIndex.Entry entry : found) {
+			System.out.println("  " + entry);
+		}
+	}
+	
+	/**
+	 * Outcome of a reindex run
+	 */
+	public static class Result {
+		private final ReceiptIndex index = new ReceiptIndex();
+		private final List<String> malformed = new ArrayList<>();
+		private long bytes;
+		private int files;
+		private long elapsedNanos;
+		
+		public ReceiptIndex getIndex() { return index; }
+		public List<String> getMalformed() { return malformed; }
+		public int getFileCount() { return files; }
+		public long getBytes() { return bytes; }
+		public long getElapsedNanos() { return elapsedNanos; }
+		
+		/**
+		 * Formats the counts and throughput of the run
+		 */
+		public String summary() {
+			double seconds = Math.max(elapsedNanos, 1) / 1e9;
+			return String.format("Indexed %d of %d receipt files (%d malformed) in %.3f s: %.0f files/s, %.1f MB/s",
+				index.size(), files, malformed.size(), seconds, files / seconds, bytes / seconds / (1024 * 1024));
+		}
+		
+		private void addAll(Result other) {
+			index.addAll(other.index);
+			malformed.addAll(other.malformed);
+			bytes += other.bytes;
+		}
+	}
+	
+	/**
+	 * Parses a range of files, splitting it in halves until it is small enough
+	 */
+	private static class ParseTask extends RecursiveTask<Result> {
+		private static final long serialVersionUID = 1L;
+		
+		private final List<Path> files;
+		private final int from;
+		private final int to;
+		
+		ParseTask(List<Path> files, int from, int to) {
+			this.files = files;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected Result compute() {
+			if (to - from > FILES_PER_TASK) {
+				int middle = (from + to) >>> 1;
+				ParseTask second = new ParseTask(files, middle, to);
+				second.fork();
+				Result result = new ParseTask(files, from, middle).compute();
+				result.addAll(second.join());
+				return result;
+			}
+			Result result = new Result();
+			for (int i = from; i < to; i++) {
+				Path file = files.get(i);
+				try {
+					byte[] bytes = Files.readAllBytes(file);
+					result.bytes += bytes.length;
+					ReceiptIndex.Entry entry = parseFile(file, bytes);
+					if (entry != null) {
+						result.index.add(entry);
+					} else {
+						result.malformed.add(file.toString());
+					}
+				} catch (IOException e) {
+					result.malformed.add(file + " (" + e.getMessage() + ")");
+				}
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package com.quickmart.app;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders receipt text without String.format, into a reusable per-thread buffer
+ *
+ * ASSUMPTIONS:
+ * - Output is identical to the original String.format-based layout, including the default FORMAT
+ *   locale's month names, digits and decimal separator
+ * - Money is printed like "%.2f": rounded half-up to two decimals, no grouping, and a "-" sign
+ *   when the unrounded value is negative
+ * - Columns are padded to their width but never truncated, like "%-12s"
+ * - Constant lines (table header, separators) are built once; date formatters are cached per locale
+ * - Amounts too large for a long number of cents fall back to String.format
+ */
+final class ReceiptRenderer {
+	private static final String TABLE_HEADER = String.format("%-12s %-10s %-12s %-8s\n", "ITEM", "QUANTITY", "UNIT PRICE", "TOTAL");
+	private static final String SEPARATOR = "*".repeat(36) + "\n";
+	private static final ThreadLocal<ReceiptRenderer> RENDERERS = ThreadLocal.withInitial(ReceiptRenderer::new);
+	private static volatile Formats formats;
+	
+	private final StringBuilder buffer = new StringBuilder(1024);
+	private Formats current;
+	
+	private ReceiptRenderer() {
+	}
+	
+	/**
+	 * Renders the receipt text
+	 */
+	static String render(Receipt receipt) {
+		return RENDERERS.get().renderText(receipt);
+	}
+	
+	/**
+	 * Builds the receipt file name: transaction_<number>_<yyyyMMdd>.txt
+	 */
+	static String fileName(int transactionNumber, LocalDateTime dateTime) {
+		ReceiptRenderer renderer = RENDERERS.get();
+		StringBuilder out = renderer.start();
+		out.append("transaction_");
+		renderer.appendZeroPadded(transactionNumber, 6);
+		out.append('_').append(renderer.current.fileDate.format(dateTime)).append(".txt");
+		return out.toString();
+	}
+	
+	private String renderText(Receipt receipt) {
+		StringBuilder out = start();
+		
+		// Date and transaction number
+		out.append(current.longDate.format(receipt.getDateTime())).append('\n');
+		out.append("TRANSACTION: ");
+		appendZeroPadded(receipt.getTransactionNumber(), 6);
+		out.append("\n\n");
+		
+		// Item table
+		out.append(TABLE_HEADER);
+		List<CartItem> items = receipt.getItems();
+		for (int i = 0; i < items.size(); i++) {
+			CartItem item = items.get(i);
+			int column = out.length();
+			out.append(item.getItem().getName());
+			padTo(column, 12);
+			out.append(' ');
+			column = out.length();
+			appendInteger(item.getQuantity());
+			padTo(column, 10);
+			out.append(" $");
+			column = out.length();
+			appendMoney(item.getUnitPrice());
+			padTo(column, 11);
+			out.append(" $");
+			column = out.length();
+			appendMoney(item.getSubtotal());
+			padTo(column, 7);
+			out.append('\n');
+		}
+		out.append('\n');
+		out.append(SEPARATOR);
+		
+		// Totals
+		out.append("TOTAL NUMBER OF ITEMS SOLD: ");
+		appendInteger(receipt.getTotalItems());
+		out.append("\nSUB-TOTAL: $");
+		appendMoney(receipt.getSubtotal());
+		out.append("\nTAX (6.5%): $");
+		appendMoney(receipt.getTax());
+		out.append("\nTOTAL: $");
+		appendMoney(receipt.getTotal());
+		out.append("\nCASH: $");
+		appendMoney(receipt.getCashPayment());
+		out.append("\nCHANGE: $");
+		appendMoney(receipt.getChange());
+		out.append("\n\n");
+		out.append(SEPARATOR);
+		
+		// Member savings
+		if (receipt.isMember() && receipt.getMemberSavings().compareTo(BigDecimal.ZERO) > 0) {
+			out.append("YOU SAVED: $");
+			appendMoney(receipt.getMemberSavings());
+			out.append("!\n");
+		}
+		
+		return out.toString();
+	}
+	
+	private StringBuilder start() {
+		current = currentFormats();
+		buffer.setLength(0);
+		return buffer;
+	}
+	
+	/**
+	 * Appends a value like "%.2f"
+	 */
+	private void appendMoney(BigDecimal value) {
+		BigDecimal rounded = value.abs().setScale(2, RoundingMode.HALF_UP);
+		if (rounded.unscaledValue().bitLength() > 62) {
+			buffer.append(String.format("%.2f", value));
+			return;
+		}
+		if (value.signum() < 0) {
+			buffer.append('-');
+		}
+		long cents = rounded.unscaledValue().longValue();
+		appendDigits(cents / 100, 1);
+		buffer.append(current.decimalSeparator);
+		appendDigits(cents % 100, 2);
+	}
+	
+	/**
+	 * Appends a value like "%d"
+	 */
+	private void appendInteger(long value) {
+		if (value < 0) {
+			buffer.append('-');
+			value = -value;
+		}
+		appendDigits(value, 1);
+	}
+	
+	/**
+	 * Appends a non-negative value like "%0<width>d"
+	 */
+	private void appendZeroPadded(long value, int width) {
+		if (value < 0) {
+			buffer.append('-');
+			appendDigits(-value, width - 1);
+		} else {
+			appendDigits(value, width);
+		}
+	}
+	
+	/**
+	 * Appends a non-negative value with at least the given number of (localized) digits
+	 */
+	private void appendDigits(long value, int minDigits) {
+		int digits = 1;
+		for (long rest = value / 10; rest > 0; rest /= 10) {
+			digits++;
+		}
+		for (int i = digits; i < minDigits; i++) {
+			buffer.append(current.zeroDigit);
+		}
+		int end = buffer.length() + digits;
+		buffer.setLength(end);
+		for (int i = end - 1; i >= end - digits; i--) {
+			buffer.setCharAt(i, (char) (current.zeroDigit + (int) (value % 10)));
+			value /= 10;
+		}
+	}
+	
+	/**
+	 * Pads the column that started at the given position with spaces
+	 */
+	private void padTo(int columnStart, int width) {
+		for (int i = buffer.length() - columnStart; i < width; i++) {
+			buffer.append(' ');
+		}
+	}
+	
+	private static Formats currentFormats() {
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		Formats cached = formats;
+		if (cached == null || !cached.locale.equals(locale)) {
+			cached = new Formats(locale);
+			formats = cached;
+		}
+		return cached;
+	}
+	
+	/**
+	 * Locale-dependent formatters and symbols, built once per locale
+	 */
+	private static class Formats {
+		private final Locale locale;
+		private final DateTimeFormatter longDate;
+		private final DateTimeFormatter fileDate;
+		private final char zeroDigit;
+		private final char decimalSeparator;
+		
+		Formats(Locale locale) {
+			DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+			this.locale = locale;
+			this.longDate = DateTimeFormatter.ofPattern("MMMM d, yyyy", locale);
+			this.fileDate = DateTimeFormatter.ofPattern("yyyyMMdd", locale);
+			this.zeroDigit = symbols.getZeroDigit();
+			this.decimalSeparator = symbols.getDecimalSeparator();
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.quickmart.app;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Where completed receipts are kept
+ *
+ * ASSUMPTIONS:
+ * - append() may buffer; a receipt is durable once sync() returns
+ * - Implementations are safe to call from several threads
+ */
+public interface ReceiptStore extends Closeable {
+	
+	/**
+	 * Stores the rendered receipt
+	 */
+	void append(Receipt receipt, String content) throws IOException;
+	
+	/**
+	 * Makes every appended receipt durable
+	 */
+	void sync() throws IOException;
+	
+	/**
+	 * Reads back the rendered receipt of a past transaction
+	 * Returns null if the store holds no receipt with that number
+	 */
+	String read(int transactionNumber) throws IOException;
+	
+	/**
+	 * Gets the highest transaction number in the store, or 0 if it is empty
+	 */
+	int getLastTransactionNumber() throws IOException;
+	
+	/**
+	 * Describes where a receipt was stored, for the cashier's console
+	 */
+	String locationOf(Receipt receipt);
+}
@@ -0,0 +1,121 @@
+package com.quickmart.app;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the sales data back out of a rendered text receipt (see ReceiptRenderer)
+ *
+ * ASSUMPTIONS:
+ * - The receipt has the standard layout: date, "TRANSACTION: <number>", the item table ending at
+ *   the first blank line, then the totals block
+ * - Item lines end with "<quantity> $<unit price> $<line total>"; everything before is the item name
+ *   (names are trimmed, so trailing spaces of a name are lost)
+ * - Money uses either decimal separator and is read by InventoryParser.parsePrice
+ * - The customer was a member if the receipt shows a "YOU SAVED" line; a member receipt without
+ *   savings is read as a regular one, which has no effect on the sales figures
+ * - The receipt date line is locale-dependent and is not read; callers take the date from elsewhere
+ * - Receipts that don't match the layout are rejected as a whole (parse returns null)
+ */
+public final class ReceiptTextParser {
+	
+	private ReceiptTextParser() {
+	}
+	
+	/**
+	 * Parses a rendered receipt
+	 * Returns null if the text is not a receipt
+	 */
+	public static ParsedReceipt parse(String content) {
+		String[] lines = content.split("\r?\n", -1);
+		try {
+			if (lines.length < 4 || !lines[1].startsWith("TRANSACTION: ") || !lines[3].startsWith("ITEM")) {
+				return null;
+			}
+			ParsedReceipt receipt = new ParsedReceipt(Integer.parseInt(lines[1].substring(13).trim()));
+			int i = 4;
+			for (; i < lines.length && !lines[i].isEmpty(); i++) {
+				if (!parseItemLine(lines[i], receipt)) {
+					return null;
+				}
+			}
+			for (; i < lines.length; i++) {
+				String line = lines[i];
+				if (line.startsWith("SUB-TOTAL: ")) {
+					receipt.subtotalCents = parseMoney(line, 11, line.length());
+				} else if (line.startsWith("TAX (")) {
+					receipt.taxCents = parseMoney(line, line.indexOf(": ") + 2, line.length());
+				} else if (line.startsWith("YOU SAVED: ")) {
+					receipt.member = true;
+					receipt.memberSavingsCents = parseMoney(line, 11, line.length() - 1);
+				}
+			}
+			return receipt.names.isEmpty() ? null : receipt;
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Splits "<name> <quantity> $<unit price> $<line total>" from the right
+	 */
+	private static boolean parseItemLine(String line, ParsedReceipt receipt) {
+		int end = trimEnd(line, line.length());
+		int lineTotalStart = line.lastIndexOf(' ', end - 1) + 1;
+		int unitPriceEnd = trimEnd(line, lineTotalStart);
+		int unitPriceStart = line.lastIndexOf(' ', unitPriceEnd - 1) + 1;
+		int quantityEnd = trimEnd(line, unitPriceStart);
+		int quantityStart = line.lastIndexOf(' ', quantityEnd - 1) + 1;
+		int nameEnd = trimEnd(line, quantityStart);
+		if (nameEnd == 0 || line.charAt(lineTotalStart) != '$' || line.charAt(unitPriceStart) != '$') {
+			return false;
+		}
+		receipt.names.add(line.substring(0, nameEnd).trim());
+		receipt.quantities.add(Integer.parseInt(line.substring(quantityStart, quantityEnd)));
+		receipt.unitPricesCents.add(parseMoney(line, unitPriceStart, unitPriceEnd));
+		receipt.lineTotalsCents.add(parseMoney(line, lineTotalStart, end));
+		return true;
+	}
+	
+	private static long parseMoney(String line, int start, int end) {
+		char[] chars = line.substring(start, end).toCharArray();
+		return Money.toCents(InventoryParser.parsePrice(chars, 0, chars.length));
+	}
+	
+	private static int trimEnd(String line, int end) {
+		while (end > 0 && line.charAt(end - 1) == ' ') {
+			end--;
+		}
+		return end;
+	}
+	
+	/**
+	 * Sales data of one text receipt
+	 */
+	public static class ParsedReceipt {
+		private final int transactionNumber;
+		private final List<String> names = new ArrayList<>();
+		private final List<Integer> quantities = new ArrayList<>();
+		private final List<Long> unitPricesCents = new ArrayList<>();
+		private final List<Long> lineTotalsCents = new ArrayList<>();
+		private long subtotalCents;
+		private long taxCents;
+		private long memberSavingsCents;
+		private boolean member;
+		
+		ParsedReceipt(int transactionNumber) {
+			this.transactionNumber = transactionNumber;
+		}
+		
+		public int getTransactionNumber() { return transactionNumber; }
+		public int getLineCount() { return names.size(); }
+		public String getName(int line) { return names.get(line); }
+		public int getQuantity(int line) { return quantities.get(line); }
+		public long getUnitPriceCents(int line) { return unitPricesCents.get(line); }
+		public long getLineTotalCents(int line) { return lineTotalsCents.get(line); }
+		public long getSubtotalCents() { return subtotalCents; }
+		public long getTaxCents() { return taxCents; }
+		public long getMemberSavingsCents() { return memberSavingsCents; }
+		public boolean isMember() { return member; }
+	}
+}
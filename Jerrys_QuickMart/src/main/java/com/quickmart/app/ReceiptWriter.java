@@ -0,0 +1,190 @@
+package com.quickmart.app;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Writes receipts to a ReceiptStore in the background, in batches (group commit)
+ *
+ * ASSUMPTIONS:
+ * - Receipts are queued in a bounded queue; a full queue makes the cashier wait (back-pressure)
+ * - One daemon thread writes them; a batch is flushed once MAX_BATCH receipts are queued or
+ *   the oldest queued receipt has waited the configured max latency
+ * - The store is synced once per batch
+ * - close() drains the queue before returning, so queued receipts survive a clean shutdown;
+ *   receipts submitted after close() are written synchronously
+ * - Write errors are logged and don't stop the writer
+ */
+public class ReceiptWriter {
+	static final int MAX_BATCH = 256;
+	private static final PendingReceipt END_OF_QUEUE = new PendingReceipt(null, null);
+	
+	private final ReceiptStore store;
+	private final BlockingQueue<PendingReceipt> queue;
+	private final long maxLatencyNanos;
+	private final Thread writerThread;
+	// Submitters hold the read lock while queueing, so nothing is queued behind the end marker
+	private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+	private boolean closed;
+	// Guarded by this
+	private long submitted;
+	private long completed;
+	
+	public ReceiptWriter(ReceiptStore store, int capacity, long maxLatency, TimeUnit unit) {
+		this.store = store;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.maxLatencyNanos = unit.toNanos(maxLatency);
+		this.writerThread = new Thread(this::run, "receipt-writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+	
+	/**
+	 * Queues a rendered receipt for writing
+	 */
+	public void submit(Receipt receipt, String content) {
+		PendingReceipt pending = new PendingReceipt(receipt, content);
+		synchronized (this) {
+			submitted++;
+		}
+		closeLock.readLock().lock();
+		try {
+			if (!closed) {
+				queue.put(pending);
+				return;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			closeLock.readLock().unlock();
+		}
+		writeBatch(List.of(pending));
+	}
+	
+	/**
+	 * Waits until every receipt submitted so far has been written
+	 */
+	public synchronized void flush() throws InterruptedException {
+		long target = submitted;
+		while (completed < target) {
+			wait();
+		}
+	}
+	
+	/**
+	 * Stops accepting receipts and writes everything still queued
+	 */
+	public void close() {
+		closeLock.writeLock().lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		} finally {
+			closeLock.writeLock().unlock();
+		}
+		boolean interrupted = false;
+		while (writerThread.isAlive()) {
+			try {
+				if (!queue.contains(END_OF_QUEUE)) {
+					queue.put(END_OF_QUEUE);
+				}
+				writerThread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Gets the number of receipts queued but not yet written
+	 */
+	public synchronized long getPendingCount() {
+		return submitted - completed;
+	}
+	
+	private void run() {
+		List<PendingReceipt> batch = new ArrayList<>();
+		boolean done = false;
+		while (!done) {
+			try {
+				PendingReceipt first = queue.take();
+				done = first == END_OF_QUEUE;
+				if (!done) {
+					batch.add(first);
+					long deadline = System.nanoTime() + maxLatencyNanos;
+					while (batch.size() < MAX_BATCH) {
+						PendingReceipt next = queue.poll(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+						if (next == null) {
+							break;
+						}
+						if (next == END_OF_QUEUE) {
+							done = true;
+							break;
+						}
+						batch.add(next);
+					}
+				}
+			} catch (InterruptedException e) {
+				// Only close() stops the writer; keep going
+			}
+			writeBatch(batch);
+			batch.clear();
+		}
+	}
+	
+	/**
+	 * Appends a batch of receipts to the store, then syncs it once
+	 */
+	private void writeBatch(List<PendingReceipt> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		for (PendingReceipt pending : batch) {
+			try {
+				store.append(pending.receipt, pending.content);
+			} catch (IOException e) {
+				System.err.println("Error saving receipt " + pending.receipt.getTransactionNumber() + ": " + e.getMessage());
+			}
+		}
+		try {
+			store.sync();
+		} catch (IOException e) {
+			System.err.println("Error saving receipts: " + e.getMessage());
+		}
+		synchronized (this) {
+			completed += batch.size();
+			notifyAll();
+		}
+	}
+	
+	/**
+	 * Gets the store receipts are written to
+	 */
+	public ReceiptStore getStore() {
+		return store;
+	}
+	
+	/**
+	 * A receipt waiting to be written
+	 */
+	private static class PendingReceipt {
+		private final Receipt receipt;
+		private final String content;
+		
+		PendingReceipt(Receipt receipt, String content) {
+			this.receipt = receipt;
+			this.content = content;
+		}
+	}
+}
@@ -0,0 +1,361 @@
+package com.quickmart.app;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts every register (lane) of a store in one process, over a local socket
+ *
+ * ASSUMPTIONS:
+ * - The server listens on the loopback address only, on port DEFAULT_PORT ("quickmart.server.port")
+ * - Each connection is one lane with its own Cart; all lanes share one Inventory and TransactionManager
+ * - Each lane is served by its own thread: a virtual thread on Java 21 and later, otherwise a pooled
+ *   platform thread (the project targets Java 17, so virtual threads are looked up at runtime)
+ * - The protocol is line-based UTF-8 text, one command per line, case-insensitive:
+ *   CUSTOMER MEMBER|REGULAR, INVENTORY [<from product id> <count>], SEARCH <name>,
+ *   ADD <product id> <quantity>, SCAN <barcode> <quantity>, CART,
+ *   REMOVE <cart item id> <quantity> (0 removes the whole line), CLEAR, CHECKOUT <cash>, CANCEL, QUIT
+ * - Every response ends with one line starting with "OK" or "ERR"; data lines before it start with a space
+ * - A transaction starts with CUSTOMER and ends with CHECKOUT or CANCEL, like MainApp's menu
+ * - A lane that disconnects mid-transaction releases its cart's held stock
+ * - Inventory is compacted when the server process exits
+ */
+public class RegisterServer implements Closeable {
+	public static final String PORT_PROPERTY = "quickmart.server.port";
+	public static final int DEFAULT_PORT = 5250;
+	private static final int SEARCH_RESULTS = 10;
+	
+	private final Inventory inventory;
+	private final ServerSocket serverSocket;
+	private final ExecutorService laneThreads;
+	private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger laneNumbers = new AtomicInteger();
+	private volatile boolean closed;
+	
+	/**
+	 * Opens the server socket; port 0 picks a free port
+	 */
+	public RegisterServer(Inventory inventory, int port) throws IOException {
+		this.inventory = inventory;
+		this.serverSocket = new ServerSocket(port, 256, InetAddress.getLoopbackAddress());
+		this.laneThreads = newLaneExecutor();
+	}
+	
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger(PORT_PROPERTY, DEFAULT_PORT);
+		Inventory inventory = new Inventory();
+		Runtime.getRuntime().addShutdownHook(new Thread(inventory::compact, "inventory-shutdown"));
+		try (RegisterServer server = new RegisterServer(inventory, port)) {
+			System.out.println("Jerry's Quick Mart register server listening on port " + server.getPort()
+				+ (usesVirtualThreads() ? " (virtual threads)" : ""));
+			server.serve();
+		}
+	}
+	
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+	
+	/**
+	 * Gets the number of connected lanes
+	 */
+	public int getLaneCount() {
+		return connections.size();
+	}
+	
+	/**
+	 * Accepts lanes until the server is closed
+	 */
+	public void serve() throws IOException {
+		while (!closed) {
+			Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (SocketException e) {
+				if (closed) {
+					return;
+				}
+				throw e;
+			}
+			connections.add(socket);
+			laneThreads.execute(new Lane(socket, laneNumbers.incrementAndGet()));
+		}
+	}
+	
+	/**
+	 * Accepts lanes on a background thread
+	 */
+	public void start() {
+		Thread acceptor = new Thread(() -> {
+			try {
+				serve();
+			} catch (IOException e) {
+				System.err.println("Register server stopped: " + e.getMessage());
+			}
+		}, "register-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+	
+	/**
+	 * Stops accepting lanes and disconnects the connected ones
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		serverSocket.close();
+		for (Socket socket : connections) {
+			socket.close();
+		}
+		laneThreads.shutdown();
+	}
+	
+	/**
+	 * Uses a virtual thread per lane when the JVM has them, else a cached pool of daemon threads
+	 */
+	private static ExecutorService newLaneExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			AtomicInteger threadNumbers = new AtomicInteger();
+			return Executors.newCachedThreadPool(task -> {
+				Thread thread = new Thread(task, "register-lane-" + threadNumbers.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+	
+	/**
+	 * Checks whether lanes run on virtual threads
+	 */
+	public static boolean usesVirtualThreads() {
+		try {
+			Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * One connected register: reads commands and keeps the lane's cart
+	 */
+	private class Lane implements Runnable {
+		private final Socket socket;
+		private final int number;
+		private PrintWriter out;
+		private Cart cart;
+		
+		Lane(Socket socket, int number) {
+			this.socket = socket;
+			this.number = number;
+		}
+		
+		@Override
+		public void run() {
+			try (socket;
+					BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+					PrintWriter writer = new PrintWriter(new BufferedWriter(
+						new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)))) {
+				out = writer;
+				ok("Jerry's Quick Mart lane " + number);
+				String line;
+				while ((line = in.readLine()) != null) {
+					if (!handle(line.trim())) {
+						break;
+					}
+				}
+			} catch (IOException e) {
+				if (!closed) {
+					System.err.println("Lane " + number + " disconnected: " + e.getMessage());
+				}
+			} finally {
+				if (cart != null) {
+					cart.clear(); // Release held stock
+				}
+				connections.remove(socket);
+			}
+		}
+		
+		/**
+		 * Runs one command; returns false when the lane quits
+		 */
+		private boolean handle(String line) {
+			String[] words = line.split("\\s+");
+			String command = words[0].toUpperCase(Locale.ROOT);
+			try {
+				switch (command) {
+					case "CUSTOMER":
+						selectCustomerType(words);
+						break;
+					case "INVENTORY":
+						listInventory(words);
+						break;
+					case "SEARCH":
+						List<Item> matches = inventory.searchItems(line.substring(command.length()).trim(), SEARCH_RESULTS);
+						for (Item item : matches) {
+							data(item.getListingLine());
+						}
+						ok(matches.size() + " items");
+						break;
+					case "ADD":
+						addItem(words, false);
+						break;
+					case "SCAN":
+						addItem(words, true);
+						break;
+					case "CART":
+						showCart();
+						break;
+					case "REMOVE":
+						removeItem(words);
+						break;
+					case "CLEAR":
+						requireCart().clear();
+						ok("Cart cleared.");
+						break;
+					case "CHECKOUT":
+						checkout(words);
+						break;
+					case "CANCEL":
+						requireCart().clear();
+						cart = null;
+						ok("Transaction cancelled.");
+						break;
+					case "QUIT":
+						ok("Goodbye.");
+						return false;
+					default:
+						error("Invalid option.");
+				}
+			} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+				error("Invalid input. Please enter a number.");
+			} catch (IllegalStateException | IllegalArgumentException e) {
+				error(e.getMessage());
+			}
+			return true;
+		}
+		
+		private void selectCustomerType(String[] words) {
+			String type = words.length > 1 ? words[1].toUpperCase(Locale.ROOT) : "";
+			if (!type.equals("MEMBER") && !type.equals("REGULAR")) {
+				error("Invalid option. Enter MEMBER or REGULAR.");
+				return;
+			}
+			if (cart != null) {
+				cart.clear();
+			}
+			boolean isMember = type.equals("MEMBER");
+			cart = new Cart(isMember, Money.isFixedPointEnabled(), inventory);
+			ok(isMember ? "Rewards Member customer selected." : "Regular customer selected.");
+		}
+		
+		private void listInventory(String[] words) {
+			int from = words.length > 1 ? Integer.parseInt(words[1]) : 1;
+			int count = words.length > 2 ? Integer.parseInt(words[2]) : Integer.MAX_VALUE;
+			List<String> lines = inventory.listItems(from, count);
+			for (String listing : lines) {
+				data(listing);
+			}
+			ok(lines.size() + " of " + inventory.size() + " items");
+		}
+		
+		private void addItem(String[] words, boolean scanned) {
+			Cart current = requireCart();
+			Item item = scanned ? inventory.getItemByBarcode(Long.parseLong(words[1]))
+				: inventory.getItemById(Integer.parseInt(words[1]));
+			int quantity = Integer.parseInt(words[2]);
+			if (item == null) {
+				error(scanned ? "Unknown barcode." : "Invalid product ID.");
+			} else if (quantity <= 0) {
+				error("Quantity must be greater than 0.");
+			} else if (current.addItem(item, quantity)) {
+				ok("Item added to cart.");
+			} else {
+				error("Insufficient stock.");
+			}
+		}
+		
+		private void showCart() {
+			Cart current = requireCart();
+			int id = 1;
+			for (CartItem item : current.getItems()) {
+				data(id + ". " + item.toString());
+				id++;
+			}
+			ok(String.format("Subtotal: $%.2f Tax: $%.2f Total: $%.2f",
+				current.getSubtotal(), current.getTotalTax(), current.getTotal()));
+		}
+		
+		private void removeItem(String[] words) {
+			Cart current = requireCart();
+			int cartItemId = Integer.parseInt(words[1]);
+			int quantity = Integer.parseInt(words[2]);
+			List<CartItem> lines = current.getItems();
+			if (cartItemId < 1 || cartItemId > lines.size()) {
+				error("Invalid cart item ID.");
+			} else if (quantity < 0) {
+				error("Invalid quantity.");
+			} else {
+				CartItem line = lines.get(cartItemId - 1);
+				// 0 removes the whole line
+				if (current.removeItem(line.getItem().getName(), quantity == 0 ? line.getQuantity() : quantity)) {
+					ok("Item removed from cart.");
+				} else {
+					error("Item not found in cart.");
+				}
+			}
+		}
+		
+		private void checkout(String[] words) {
+			Cart current = requireCart();
+			if (current.isEmpty()) {
+				error("The cart is empty.");
+				return;
+			}
+			BigDecimal cashPayment = new BigDecimal(words[1]);
+			Receipt receipt = TransactionManager.processTransaction(current, cashPayment, inventory);
+			for (String receiptLine : receipt.generateReceiptContent().split("\n")) {
+				data(receiptLine);
+			}
+			cart = null;
+			ok(String.format("Transaction %06d completed.", receipt.getTransactionNumber()));
+		}
+		
+		private Cart requireCart() {
+			if (cart == null) {
+				throw new IllegalStateException("Select the customer type first (CUSTOMER MEMBER|REGULAR).");
+			}
+			return cart;
+		}
+		
+		private void data(String line) {
+			out.print(' ');
+			out.print(line);
+			out.print('\n');
+		}
+		
+		private void ok(String message) {
+			out.print("OK " + message + "\n");
+			out.flush();
+		}
+		
+		private void error(String message) {
+			out.print("ERR " + message + "\n");
+			out.flush();
+		}
+	}
+}
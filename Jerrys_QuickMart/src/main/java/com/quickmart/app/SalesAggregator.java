@@ -0,0 +1,490 @@
+package com.quickmart.app;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Daily sales rollups per item (SKU) and per hour, kept in primitive arrays
+ *
+ * ASSUMPTIONS:
+ * - Every item name gets a dense SKU index the first time it is sold; indices never change
+ * - Each day keeps, per SKU, units, revenue, tax and member savings (one long[] per metric indexed by SKU)
+ *   and the same metrics for the whole store per hour of the day, plus transaction counts
+ * - Every lookup is O(1); a range of days costs one lookup per day
+ * - Revenue is the line total before tax; per-SKU tax is the line tax (Money.taxCents), so it can
+ *   differ by a cent from the receipt's tax, which is rounded once on the whole subtotal
+ * - Member savings are counted for member receipts only
+ * - Each transaction number is counted once, so live sales and backfills can overlap safely
+ * - Backfilled text receipts and binary records don't carry regular prices or tax status per line;
+ *   those come from the catalog (e.g. Inventory::getItem) and count as 0 for unknown items
+ * - Persistence is incremental: new item names are appended to "skus.txt" and only the days changed
+ *   since the last save are rewritten ("day_<yyyyMMdd>.bin", with a CRC32 trailer), each atomically
+ * - Unsaved rollups are lost in a crash; backfilling the day's receipts restores them
+ * - A damaged day file is reported and skipped so it can be rebuilt by a backfill
+ * - All methods are synchronized; several lanes may record sales at once
+ * - save() copies what changed under the lock and writes it outside, so lanes keep recording while it syncs
+ */
+public class SalesAggregator {
+	public enum Metric { UNITS, REVENUE_CENTS, TAX_CENTS, MEMBER_SAVINGS_CENTS }
+	
+	private static final int METRICS = Metric.values().length;
+	private static final int HOURS = 24;
+	private static final int DAY_FILE_MAGIC = 0x51534431; // "QSD1"
+	private static final String SKU_FILE = "skus.txt";
+	private static final Pattern DAY_FILE_PATTERN = Pattern.compile("day_(\\d{8})\\.bin");
+	private static final Pattern RECEIPT_FILE_PATTERN = Pattern.compile("transaction_\\d+_(\\d{8})\\.txt");
+	private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+	
+	private final File directory;
+	private final Map<String, Integer> skuIndex = new HashMap<>();
+	private final List<String> skuNames = new ArrayList<>();
+	private final Map<Long, DayRollup> days = new HashMap<>();
+	private final BitSet counted = new BitSet();
+	// Serializes saves; savedSkuCount is guarded by it
+	private final Object saveLock = new Object();
+	private int savedSkuCount;
+	
+	/**
+	 * Creates an aggregator kept in memory only
+	 */
+	public SalesAggregator() {
+		this.directory = null;
+	}
+	
+	/**
+	 * Creates an aggregator persisted in the given directory, loading what is already there
+	 */
+	public SalesAggregator(File directory) {
+		this.directory = directory;
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			System.err.println("Cannot create sales directory " + directory);
+		}
+		load();
+	}
+	
+	/**
+	 * Adds a completed sale
+	 * Returns false if the transaction was already counted
+	 */
+	public synchronized boolean record(Receipt receipt) {
+		if (!markCounted(receipt.getTransactionNumber())) {
+			return false;
+		}
+		LocalDateTime dateTime = receipt.getDateTime();
+		DayRollup day = day(dateTime.toLocalDate());
+		int hour = dateTime.getHour();
+		for (CartItem line : receipt.getItems()) {
+			day.add(sku(line.getItem().getName()), hour, line.getQuantity(), line.getSubtotalCents(),
+				line.getTaxCents(), receipt.isMember() ? line.getMemberSavingsCents() : 0);
+		}
+		day.addTransaction(receipt.getTransactionNumber(), hour);
+		return true;
+	}
+	
+	/**
+	 * Adds a sale read back from a text receipt
+	 * Returns false if the transaction was already counted
+	 */
+	public synchronized boolean record(ReceiptTextParser.ParsedReceipt receipt, LocalDate date, int hour,
+			Function<String, Item> catalog) {
+		if (!markCounted(receipt.getTransactionNumber())) {
+			return false;
+		}
+		DayRollup day = day(date);
+		for (int line = 0; line < receipt.getLineCount(); line++) {
+			String name = receipt.getName(line);
+			Item item = catalog.apply(name);
+			long lineTotal = receipt.getLineTotalCents(line);
+			int quantity = receipt.getQuantity(line);
+			day.add(sku(name), hour, quantity, lineTotal,
+				item != null && item.isTaxable() ? Money.taxCents(lineTotal) : 0,
+				item != null && receipt.isMember() ? item.getMemberSavingsCents() * quantity : 0);
+		}
+		day.addTransaction(receipt.getTransactionNumber(), hour);
+		return true;
+	}
+	
+	/**
+	 * Adds a sale read from a binary transaction record
+	 * Returns false if the transaction was already counted
+	 */
+	public synchronized boolean record(TransactionRecord record, Function<String, Item> catalog) {
+		if (!markCounted(record.getTransactionNumber())) {
+			return false;
+		}
+		LocalDateTime dateTime = record.getDateTime();
+		DayRollup day = day(dateTime.toLocalDate());
+		int hour = dateTime.getHour();
+		for (int line = 0; line < record.getLineCount(); line++) {
+			String name = record.getName(line);
+			Item item = catalog.apply(name);
+			int quantity = record.getQuantity(line);
+			long lineTotal = record.getUnitPriceCents(line) * quantity;
+			day.add(sku(name), hour, quantity, lineTotal,
+				record.isTaxable(line) ? Money.taxCents(lineTotal) : 0,
+				item != null && record.isMember() ? item.getMemberSavingsCents() * quantity : 0);
+		}
+		day.addTransaction(record.getTransactionNumber(), hour);
+		return true;
+	}
+	
+	/**
+	 * Backfills every record of a binary record file (see TransactionRecordLog)
+	 * Returns the number of transactions added
+	 */
+	public int backfillRecords(File recordFile, Function<String, Item> catalog) throws IOException {
+		int[] added = new int[1];
+		TransactionRecordLog.scan(recordFile, record -> {
+			if (record(record, catalog)) {
+				added[0]++;
+			}
+		});
+		return added[0];
+	}
+	
+	/**
+	 * Backfills one "transaction_<number>_<yyyyMMdd>.txt" receipt file
+	 * The hour comes from the file's modification time when it is on the receipt's day, otherwise 0
+	 * Returns true if the transaction was added
+	 */
+	public boolean backfillReceiptFile(File file, Function<String, Item> catalog) throws IOException {
+		Matcher matcher = RECEIPT_FILE_PATTERN.matcher(file.getName());
+		if (!matcher.matches()) {
+			return false;
+		}
+		LocalDate date = LocalDate.parse(matcher.group(1), DAY_FORMAT);
+		LocalDateTime modified = LocalDateTime.ofInstant(Instant.ofEpochMilli(file.lastModified()), ZoneId.systemDefault());
+		int hour = modified.toLocalDate().equals(date) ? modified.getHour() : 0;
+		
+		ReceiptTextParser.ParsedReceipt receipt = ReceiptTextParser.parse(
+			new String(Files.readAllBytes(file.toPath()), Charset.defaultCharset()));
+		if (receipt == null) {
+			System.err.println("Not a valid receipt: " + file.getName());
+			return false;
+		}
+		return record(receipt, date, hour, catalog);
+	}
+	
+	/**
+	 * Gets a metric of one item on one day
+	 */
+	public synchronized long get(Metric metric, String itemName, LocalDate date) {
+		Integer sku = skuIndex.get(itemName);
+		DayRollup day = days.get(date.toEpochDay());
+		return sku == null || day == null ? 0 : day.get(metric, sku);
+	}
+	
+	/**
+	 * Gets a metric of one item over a range of days (both inclusive)
+	 */
+	public synchronized long get(Metric metric, String itemName, LocalDate from, LocalDate to) {
+		Integer sku = skuIndex.get(itemName);
+		if (sku == null) {
+			return 0;
+		}
+		long total = 0;
+		for (long epochDay = from.toEpochDay(); epochDay <= to.toEpochDay(); epochDay++) {
+			DayRollup day = days.get(epochDay);
+			if (day != null) {
+				total += day.get(metric, sku);
+			}
+		}
+		return total;
+	}
+	
+	/**
+	 * Gets a metric of the whole store in one hour of a day
+	 */
+	public synchronized long getHourly(Metric metric, LocalDate date, int hour) {
+		DayRollup day = days.get(date.toEpochDay());
+		return day == null ? 0 : day.hours[metric.ordinal()][hour];
+	}
+	
+	/**
+	 * Gets a metric of the whole store on one day
+	 */
+	public synchronized long getDayTotal(Metric metric, LocalDate date) {
+		DayRollup day = days.get(date.toEpochDay());
+		long total = 0;
+		if (day != null) {
+			for (long value : day.hours[metric.ordinal()]) {
+				total += value;
+			}
+		}
+		return total;
+	}
+	
+	/**
+	 * Gets the number of transactions in one hour of a day
+	 */
+	public synchronized int getTransactionCount(LocalDate date, int hour) {
+		DayRollup day = days.get(date.toEpochDay());
+		return day == null ? 0 : day.hourTransactions[hour];
+	}
+	
+	/**
+	 * Gets the number of transactions on a day
+	 */
+	public synchronized int getTransactionCount(LocalDate date) {
+		DayRollup day = days.get(date.toEpochDay());
+		return day == null ? 0 : day.transactionCount;
+	}
+	
+	/**
+	 * Checks whether a transaction is already part of the rollups
+	 */
+	public synchronized boolean isCounted(int transactionNumber) {
+		return counted.get(transactionNumber);
+	}
+	
+	/**
+	 * Writes new item names and the days changed since the last save
+	 */
+	public void save() throws IOException {
+		if (directory == null) {
+			return;
+		}
+		synchronized (saveLock) {
+			int skuCount;
+			StringBuilder names = new StringBuilder();
+			List<DayRollup> changedDays = new ArrayList<>();
+			List<byte[]> encodedDays = new ArrayList<>();
+			synchronized (this) {
+				skuCount = skuNames.size();
+				for (int sku = savedSkuCount; sku < skuCount; sku++) {
+					names.append(skuNames.get(sku)).append('\n');
+				}
+				for (DayRollup day : days.values()) {
+					if (day.dirty) {
+						changedDays.add(day);
+						encodedDays.add(day.encode());
+						day.dirty = false;
+					}
+				}
+			}
+			try {
+				if (savedSkuCount < skuCount) {
+					try (FileOutputStream out = new FileOutputStream(new File(directory, SKU_FILE), true)) {
+						out.write(names.toString().getBytes(StandardCharsets.UTF_8));
+						out.getFD().sync();
+					}
+					savedSkuCount = skuCount;
+				}
+				for (int i = 0; i < changedDays.size(); i++) {
+					SnapshotFile.replace(dayFile(changedDays.get(i).epochDay), false, encodedDays.get(i));
+				}
+			} catch (IOException e) {
+				synchronized (this) {
+					for (DayRollup day : changedDays) {
+						day.dirty = true;
+					}
+				}
+				throw e;
+			}
+		}
+	}
+	
+	private boolean markCounted(int transactionNumber) {
+		if (counted.get(transactionNumber)) {
+			return false;
+		}
+		counted.set(transactionNumber);
+		return true;
+	}
+	
+	private int sku(String name) {
+		Integer sku = skuIndex.get(name);
+		if (sku == null) {
+			sku = skuNames.size();
+			skuNames.add(name);
+			skuIndex.put(name, sku);
+		}
+		return sku;
+	}
+	
+	private DayRollup day(LocalDate date) {
+		return days.computeIfAbsent(date.toEpochDay(), DayRollup::new);
+	}
+	
+	private File dayFile(long epochDay) {
+		return new File(directory, "day_" + LocalDate.ofEpochDay(epochDay).format(DAY_FORMAT) + ".bin");
+	}
+	
+	/**
+	 * Loads the SKU names and every day file
+	 */
+	private void load() {
+		File skuFile = new File(directory, SKU_FILE);
+		try {
+			if (skuFile.exists()) {
+				byte[] bytes = Files.readAllBytes(skuFile.toPath());
+				int complete = bytes.length;
+				while (complete > 0 && bytes[complete - 1] != '\n') {
+					complete--;
+				}
+				if (complete < bytes.length) {
+					// Drop a name torn by a crash so the next append starts on a fresh line
+					try (RandomAccessFile file = new RandomAccessFile(skuFile, "rw")) {
+						file.setLength(complete);
+					}
+				}
+				String names = new String(bytes, 0, complete, StandardCharsets.UTF_8);
+				int start = 0;
+				for (int newline = names.indexOf('\n'); newline >= 0; newline = names.indexOf('\n', start)) {
+					sku(names.substring(start, newline));
+					start = newline + 1;
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("Error loading sales SKUs: " + e.getMessage());
+		}
+		savedSkuCount = skuNames.size();
+		
+		File[] files = directory.listFiles((dir, name) -> DAY_FILE_PATTERN.matcher(name).matches());
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			try {
+				DayRollup day = DayRollup.decode(Files.readAllBytes(file.toPath()), skuNames.size());
+				days.put(day.epochDay, day);
+				for (int i = 0; i < day.transactionCount; i++) {
+					counted.set(day.transactions[i]);
+				}
+			} catch (IOException | RuntimeException e) {
+				System.err.println("Skipping damaged sales file " + file.getName() + ": " + e.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Rollups of one day
+	 */
+	private static class DayRollup {
+		private final long epochDay;
+		private long[][] skus = new long[METRICS][16];
+		private final long[][] hours = new long[METRICS][HOURS];
+		private final int[] hourTransactions = new int[HOURS];
+		private int[] transactions = new int[16];
+		private int transactionCount;
+		private int skuLimit;
+		private boolean dirty;
+		
+		DayRollup(long epochDay) {
+			this.epochDay = epochDay;
+		}
+		
+		void add(int sku, int hour, long units, long revenueCents, long taxCents, long memberSavingsCents) {
+			if (sku >= skus[0].length) {
+				int capacity = Math.max(skus[0].length * 2, sku + 1);
+				for (int metric = 0; metric < METRICS; metric++) {
+					skus[metric] = Arrays.copyOf(skus[metric], capacity);
+				}
+			}
+			skuLimit = Math.max(skuLimit, sku + 1);
+			addMetric(Metric.UNITS, sku, hour, units);
+			addMetric(Metric.REVENUE_CENTS, sku, hour, revenueCents);
+			addMetric(Metric.TAX_CENTS, sku, hour, taxCents);
+			addMetric(Metric.MEMBER_SAVINGS_CENTS, sku, hour, memberSavingsCents);
+			dirty = true;
+		}
+		
+		private void addMetric(Metric metric, int sku, int hour, long value) {
+			skus[metric.ordinal()][sku] += value;
+			hours[metric.ordinal()][hour] += value;
+		}
+		
+		void addTransaction(int transactionNumber, int hour) {
+			if (transactionCount == transactions.length) {
+				transactions = Arrays.copyOf(transactions, transactionCount * 2);
+			}
+			transactions[transactionCount++] = transactionNumber;
+			hourTransactions[hour]++;
+			dirty = true;
+		}
+		
+		long get(Metric metric, int sku) {
+			return sku < skuLimit ? skus[metric.ordinal()][sku] : 0;
+		}
+		
+		/**
+		 * Layout: magic, epoch day, SKU count, per-SKU metrics, hourly metrics,
+		 * hourly transaction counts, transaction numbers, CRC32 of everything before
+		 */
+		byte[] encode() {
+			int length = 4 + 8 + 4 + METRICS * skuLimit * 8 + METRICS * HOURS * 8 + HOURS * 4 + 4 + transactionCount * 4 + 4;
+			ByteBuffer out = ByteBuffer.allocate(length);
+			out.putInt(DAY_FILE_MAGIC).putLong(epochDay).putInt(skuLimit);
+			for (int metric = 0; metric < METRICS; metric++) {
+				for (int sku = 0; sku < skuLimit; sku++) {
+					out.putLong(skus[metric][sku]);
+				}
+			}
+			for (int metric = 0; metric < METRICS; metric++) {
+				for (int hour = 0; hour < HOURS; hour++) {
+					out.putLong(hours[metric][hour]);
+				}
+			}
+			for (int hour = 0; hour < HOURS; hour++) {
+				out.putInt(hourTransactions[hour]);
+			}
+			out.putInt(transactionCount);
+			for (int i = 0; i < transactionCount; i++) {
+				out.putInt(transactions[i]);
+			}
+			CRC32 crc = new CRC32();
+			crc.update(out.array(), 0, length - 4);
+			out.putInt((int) crc.getValue());
+			return out.array();
+		}
+		
+		static DayRollup decode(byte[] bytes, int knownSkus) throws IOException {
+			CRC32 crc = new CRC32();
+			crc.update(bytes, 0, Math.max(bytes.length - 4, 0));
+			ByteBuffer in = ByteBuffer.wrap(bytes);
+			if (bytes.length < 20 || in.getInt(0) != DAY_FILE_MAGIC || in.getInt(bytes.length - 4) != (int) crc.getValue()) {
+				throw new IOException("checksum mismatch");
+			}
+			in.position(4);
+			DayRollup day = new DayRollup(in.getLong());
+			int skuLimit = in.getInt();
+			if (skuLimit > knownSkus) {
+				throw new IOException("refers to unknown SKUs");
+			}
+			day.skus = new long[METRICS][Math.max(skuLimit, 16)];
+			day.skuLimit = skuLimit;
+			for (int metric = 0; metric < METRICS; metric++) {
+				for (int sku = 0; sku < skuLimit; sku++) {
+					day.skus[metric][sku] = in.getLong();
+				}
+			}
+			for (int metric = 0; metric < METRICS; metric++) {
+				for (int hour = 0; hour < HOURS; hour++) {
+					day.hours[metric][hour] = in.getLong();
+				}
+			}
+			for (int hour = 0; hour < HOURS; hour++) {
+				day.hourTransactions[hour] = in.getInt();
+			}
+			day.transactionCount = in.getInt();
+			day.transactions = new int[Math.max(day.transactionCount, 16)];
+			for (int i = 0; i < day.transactionCount; i++) {
+				day.transactions[i] = in.getInt();
+			}
+			return day;
+		}
+	}
+}
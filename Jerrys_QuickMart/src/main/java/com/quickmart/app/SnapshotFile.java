@@ -0,0 +1,192 @@
+package com.quickmart.app;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Crash-safe snapshot files: write to temp + fsync + atomic rename, with a checksum footer
+ *
+ * ASSUMPTIONS:
+ * - The temp file lives next to the target so the rename stays on one file system
+ * - The last line of a snapshot is the footer "#CRC32:xxxxxxxx", the CRC32 of every byte before it
+ * - A file without a footer fails verification, since damage can cut the footer off; only the
+ *   inventory accepts its footer-less file from older versions, until it is first rewritten (see Inventory)
+ * - The previous snapshot is kept as "<name>.bak" so a damaged snapshot can fall back to it
+ * - A crash leaves either the old or the new snapshot in place, never a truncated one
+ * - Readers skip the footer line; other lines starting with "#" are ordinary content
+ */
+public final class SnapshotFile {
+	static final String FOOTER_PREFIX = "#CRC32:";
+	private static final int FOOTER_LENGTH = FOOTER_PREFIX.length() + 8 + 1;
+	
+	private SnapshotFile() {
+	}
+	
+	/**
+	 * Atomically replaces the file with the given content plus a checksum footer
+	 */
+	public static void write(File file, String content) throws IOException {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		String footer = String.format("%s%08x\n", FOOTER_PREFIX, crc.getValue());
+		replace(file, true, bytes, footer.getBytes(StandardCharsets.US_ASCII));
+	}
+	
+	/**
+	 * Atomically replaces the file with the given parts as they are (callers add their own checksum)
+	 */
+	static void replace(File file, boolean keepBackup, byte[]... parts) throws IOException {
+		File temp = new File(file.getPath() + ".tmp");
+		try (FileOutputStream out = new FileOutputStream(temp)) {
+			for (byte[] part : parts) {
+				out.write(part);
+			}
+			out.getFD().sync();
+		}
+		if (keepBackup && file.exists()) {
+			keepBackup(file);
+		}
+		try {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		syncDirectory(file.getAbsoluteFile().getParentFile());
+	}
+	
+	/**
+	 * Reads a small snapshot and validates its footer
+	 * Returns the content without the footer, or null if the file does not exist
+	 */
+	public static String readVerified(File file) throws IOException {
+		if (!file.exists()) {
+			return null;
+		}
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		int footerStart = footerStart(bytes, bytes.length);
+		if (footerStart < 0) {
+			throw new IOException("No checksum footer in " + file.getName());
+		}
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, footerStart);
+		if (crc.getValue() != footerValue(bytes, footerStart)) {
+			throw new IOException("Checksum mismatch in " + file.getName());
+		}
+		return new String(bytes, 0, footerStart, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Validates the footer of a (possibly very large) snapshot without loading it
+	 * Returns true if the checksum matches, false if it doesn't or the file has no footer
+	 */
+	public static boolean verify(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			byte[] tail = readTail(channel);
+			int footerStart = footerStart(tail, tail.length);
+			if (footerStart < 0) {
+				return false;
+			}
+			long contentLength = size - tail.length + footerStart;
+			CRC32 crc = new CRC32();
+			ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+			long position = 0;
+			while (position < contentLength) {
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), contentLength - position));
+				int read = channel.read(buffer, position);
+				if (read < 0) {
+					return false;
+				}
+				buffer.flip();
+				crc.update(buffer);
+				position += read;
+			}
+			return crc.getValue() == footerValue(tail, footerStart);
+		}
+	}
+	
+	/**
+	 * Checks if a file ends with a checksum footer line, without checking the checksum
+	 */
+	public static boolean hasFooter(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			byte[] tail = readTail(channel);
+			return footerStart(tail, tail.length) >= 0;
+		}
+	}
+	
+	/**
+	 * Reads the last bytes of a file, enough to hold the footer and the newline before it
+	 */
+	private static byte[] readTail(FileChannel channel) throws IOException {
+		long size = channel.size();
+		ByteBuffer tail = ByteBuffer.allocate((int) Math.min(size, FOOTER_LENGTH + 1));
+		channel.read(tail, size - tail.capacity());
+		return tail.array();
+	}
+	
+	/**
+	 * Keeps the current snapshot as the backup; a hard link keeps the target in place during the swap
+	 */
+	private static void keepBackup(File file) throws IOException {
+		File backup = backupOf(file);
+		Files.deleteIfExists(backup.toPath());
+		try {
+			Files.createLink(backup.toPath(), file.toPath());
+		} catch (UnsupportedOperationException | IOException e) {
+			Files.copy(file.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * Gets the backup copy kept for a snapshot
+	 */
+	public static File backupOf(File file) {
+		return new File(file.getPath() + ".bak");
+	}
+	
+	/**
+	 * Finds where the footer line starts, or -1 if the data has no footer
+	 */
+	private static int footerStart(byte[] bytes, int length) {
+		int start = length - FOOTER_LENGTH;
+		if (start < 0 || bytes[length - 1] != '\n' || (start > 0 && bytes[start - 1] != '\n')) {
+			return -1;
+		}
+		for (int i = 0; i < FOOTER_PREFIX.length(); i++) {
+			if (bytes[start + i] != FOOTER_PREFIX.charAt(i)) {
+				return -1;
+			}
+		}
+		return start;
+	}
+	
+	private static long footerValue(byte[] bytes, int footerStart) {
+		int hexStart = footerStart + FOOTER_PREFIX.length();
+		try {
+			return Long.parseLong(new String(bytes, hexStart, 8, StandardCharsets.US_ASCII), 16);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+	
+	/**
+	 * Flushes a directory's entries so renames and new files survive a crash (best effort)
+	 */
+	static void syncDirectory(File directory) {
+		try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// Not supported on every platform (e.g. Windows)
+		}
+	}
+}
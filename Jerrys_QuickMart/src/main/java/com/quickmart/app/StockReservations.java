@@ -0,0 +1,195 @@
+package com.quickmart.app;
+
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Time-limited stock holds placed by open carts
+ *
+ * ASSUMPTIONS:
+ * - Each cart line owns at most one hold, resized as the line's quantity changes
+ * - A hold expires TTL after its last change unless the cart checks out, removes the line or is cleared
+ * - Held units are not available to other carts (Item.getAvailableQuantity)
+ * - Hold bookkeeping is guarded by the item's monitor, like the rest of the item's stock
+ * - Expiry is driven by a DelayQueue swept by one daemon thread holding at most one ticket per hold;
+ *   a ticket that comes due after its hold was extended is requeued for the new deadline, so the queue
+ *   and every operation on it stay O(log n) in the number of holds
+ * - A cart whose hold expired keeps its line; checkout then needs the stock to still be available
+ */
+public class StockReservations {
+	private final long ttlNanos;
+	private final DelayQueue<ExpiryTicket> expiryQueue = new DelayQueue<>();
+	private final AtomicInteger activeHolds = new AtomicInteger();
+	private Thread sweeper;
+	
+	public StockReservations(long ttl, TimeUnit unit) {
+		this.ttlNanos = unit.toNanos(ttl);
+	}
+	
+	/**
+	 * Holds stock for a new cart line
+	 * Returns null if there isn't enough available stock
+	 */
+	public Hold reserve(Item item, int quantity) {
+		Hold hold = new Hold(item);
+		return resize(hold, quantity) ? hold : null;
+	}
+	
+	/**
+	 * Changes the held quantity (0 releases the hold) and restarts its TTL
+	 * Returns false, leaving the hold untouched, if there isn't enough available stock
+	 */
+	public boolean resize(Hold hold, int quantity) {
+		Item item = hold.item;
+		long expiresAt;
+		boolean enqueue;
+		synchronized (item) {
+			int held = hold.released ? 0 : hold.quantity;
+			if (quantity - held > item.getAvailableQuantity()) {
+				return false;
+			}
+			item.adjustReserved(quantity - held);
+			if (quantity == 0) {
+				markReleased(hold);
+				return true;
+			}
+			if (hold.released) {
+				hold.released = false;
+				activeHolds.incrementAndGet();
+			}
+			hold.quantity = quantity;
+			expiresAt = System.nanoTime() + ttlNanos;
+			hold.expiresAt = expiresAt;
+			enqueue = !hold.ticketQueued;
+			hold.ticketQueued = true;
+		}
+		if (enqueue) {
+			ensureSweeperStarted();
+			expiryQueue.add(new ExpiryTicket(hold, expiresAt));
+		}
+		return true;
+	}
+	
+	/**
+	 * Gives the held stock back
+	 */
+	public void release(Hold hold) {
+		synchronized (hold.item) {
+			if (!hold.released) {
+				hold.item.adjustReserved(-hold.quantity);
+				markReleased(hold);
+			}
+		}
+	}
+	
+	/**
+	 * Gets the units currently held (0 once released or expired)
+	 * Callers must hold the item's monitor
+	 */
+	int heldQuantity(Hold hold) {
+		return hold.released ? 0 : hold.quantity;
+	}
+	
+	/**
+	 * Gets the number of holds not yet released, consumed or expired
+	 */
+	public int getActiveHoldCount() {
+		return activeHolds.get();
+	}
+	
+	/**
+	 * Gets the number of expiry tickets waiting in the queue
+	 */
+	int getQueuedTicketCount() {
+		return expiryQueue.size();
+	}
+	
+	private void markReleased(Hold hold) {
+		if (!hold.released) {
+			hold.released = true;
+			activeHolds.decrementAndGet();
+		}
+		hold.quantity = 0;
+	}
+	
+	/**
+	 * Releases holds whose TTL elapsed
+	 */
+	private void sweep() {
+		while (!Thread.currentThread().isInterrupted()) {
+			ExpiryTicket ticket;
+			try {
+				ticket = expiryQueue.take();
+			} catch (InterruptedException e) {
+				return;
+			}
+			Hold hold = ticket.hold;
+			ExpiryTicket requeued = null;
+			synchronized (hold.item) {
+				if (!hold.released && hold.expiresAt != ticket.expiresAt) {
+					// Extended since this ticket was queued; it stays the hold's only ticket
+					requeued = new ExpiryTicket(hold, hold.expiresAt);
+				} else {
+					if (!hold.released) {
+						hold.item.adjustReserved(-hold.quantity);
+						markReleased(hold);
+					}
+					hold.ticketQueued = false;
+				}
+			}
+			if (requeued != null) {
+				expiryQueue.add(requeued);
+			}
+		}
+	}
+	
+	private synchronized void ensureSweeperStarted() {
+		if (sweeper == null) {
+			sweeper = new Thread(this::sweep, "stock-reservation-sweeper");
+			sweeper.setDaemon(true);
+			sweeper.start();
+		}
+	}
+	
+	/**
+	 * Stock held by one cart line
+	 */
+	public static class Hold {
+		private final Item item;
+		private int quantity;
+		private boolean released = true;
+		private long expiresAt;
+		private boolean ticketQueued;
+		
+		private Hold(Item item) {
+			this.item = item;
+		}
+		
+		public Item getItem() { return item; }
+	}
+	
+	/**
+	 * Expiry deadline of a hold at the time it was queued
+	 */
+	private static class ExpiryTicket implements Delayed {
+		private final Hold hold;
+		private final long expiresAt;
+		
+		ExpiryTicket(Hold hold, long expiresAt) {
+			this.hold = hold;
+			this.expiresAt = expiresAt;
+		}
+		
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(expiresAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+		
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.signum(expiresAt - ((ExpiryTicket) other).expiresAt);
+		}
+	}
+}
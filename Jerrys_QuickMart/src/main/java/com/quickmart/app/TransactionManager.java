@@ -1,90 +1,255 @@
-package com.quickmart.app;
-
-import java.io.*;
-import java.math.BigDecimal;
-
-/**
- * Manages incremental transaction numbering
- * 
- * ASSUMPTIONS:
- * - Transaction counter file is named "transaction_counter.txt" in application root
- * - Transaction numbers start from 1 and increment sequentially
- * - Transaction counter persists between application sessions
- * - If counter file is missing or corrupted, counter resets to 1
- * - Payment is always sufficient (validated before processing)
- * - All transactions are processed immediately (no queuing)
- * - Receipt files are saved in application root directory
- * - Inventory is updated immediately after transaction
- * - Transaction numbers are unique across all sessions
- * - No transaction rollback mechanism (transactions are final)
- * - File operations use default system encoding
- */
-public class TransactionManager {
-	private static final String TRANSACTION_COUNTER_FILE = "transaction_counter.txt";
-	private static int currentTransactionNumber = 1;
-	
-	static {
-		loadTransactionCounter();
-	}
-	
-	/**
-	 * Loads transaction counter from file
-	 */
-	private static void loadTransactionCounter() {
-		try (BufferedReader reader = new BufferedReader(new FileReader(TRANSACTION_COUNTER_FILE))) {
-			String line = reader.readLine();
-			if (line != null && !line.trim().isEmpty()) {
-				currentTransactionNumber = Integer.parseInt(line.trim());
-			}
-		} catch (IOException | NumberFormatException e) {
-			// If file doesn't exist or there's an error, start from 1
-			currentTransactionNumber = 1;
-		}
-	}
-	
-	/**
-	 * Saves transaction counter to file
-	 */
-	private static void saveTransactionCounter() {
-		try (PrintWriter writer = new PrintWriter(new FileWriter(TRANSACTION_COUNTER_FILE))) {
-			writer.println(currentTransactionNumber);
-		} catch (IOException e) {
-			System.err.println("Error saving transaction counter: " + e.getMessage());
-		}
-	}
-	
-	/**
-	 * Gets the next transaction number
-	 */
-	public static int getNextTransactionNumber() {
-		int nextNumber = currentTransactionNumber;
-		currentTransactionNumber++;
-		saveTransactionCounter();
-		return nextNumber;
-	}
-	
-	/**
-	 * Processes a complete transaction
-	 */
-	public static Receipt processTransaction(Cart cart, BigDecimal cashPayment, Inventory inventory) {
-		// Validate payment
-		if (cashPayment.compareTo(cart.getTotal()) < 0) {
-			throw new IllegalArgumentException("Insufficient payment");
-		}
-		
-		// Get transaction number
-		int transactionNumber = getNextTransactionNumber();
-		
-		// Create receipt
-		Receipt receipt = new Receipt(transactionNumber, cart, cashPayment);
-		
-		// Update inventory
-		cart.updateInventory(inventory);
-		inventory.saveInventory();
-		
-		// Save receipt
-		receipt.saveToFile();
-		
-		return receipt;
-	}
+package com.quickmart.app;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Manages incremental transaction numbering
+ * 
+ * ASSUMPTIONS:
+ * - Transaction counter file is named "transaction_counter.txt" in the data directory (see DataFiles)
+ * - Transaction numbers start from 1 and increment sequentially
+ * - Transaction counter persists between application sessions as a high-water mark,
+ *   reserved in blocks of BLOCK_SIZE numbers ("quickmart.transactions.blockSize" system property)
+ * - Numbers are allocated lock-free and are unique across threads (see TransactionNumberAllocator)
+ * - After a crash numbering resumes at the next block, so a few numbers may be skipped
+ * - If counter file is missing, counter starts at 1
+ * - Counter file is written crash-safely with a checksum footer (see SnapshotFile)
+ * - If counter file is corrupted or has no checksum footer (including one from an older version), counter
+ *   resumes after the highest number found in the backup counter file and the saved receipts, so numbers
+ *   are never reused
+ * - Every sale is added to the SalesAggregator rollups in the "sales" folder of the data directory,
+ *   saved every SALES_SAVE_EVERY sales ("quickmart.sales.saveEvery") on a background thread and on shutdown
+ * - Payment is always sufficient (validated before processing)
+ * - All transactions are processed immediately; only the receipt file is written in the background
+ *   by a ReceiptWriter (disable with "quickmart.receipts.async=false")
+ * - Queued receipts are written at most RECEIPT_MAX_LATENCY_MILLIS after checkout
+ *   ("quickmart.receipts.maxLatencyMillis") and are drained on shutdown
+ * - Receipts are appended to a segmented ReceiptJournal in the "receipts" folder of the data directory
+ *   and can be looked up by number (lookupReceipt); "quickmart.receipts.store=files" keeps the
+ *   original one-file-per-transaction layout in the data directory
+ * - Segments roll over daily or after "quickmart.receipts.segmentBytes" bytes (default 64 MB)
+ * - Inventory is updated immediately after transaction (journaled, see Inventory.saveStockChanges)
+ * - Transaction numbers are unique across all sessions
+ * - No transaction rollback mechanism (transactions are final)
+ * - A checkout fails as a whole, before a number is allocated, if another lane sold the stock first
+ * - If no transaction number can be allocated (counter file not writable) the sold stock is put back
+ *   and the checkout fails with IllegalStateException
+ * - Safe to call from several lanes (threads) sharing one Inventory
+ * - File operations use default system encoding
+ */
+public class TransactionManager {
+	private static final String TRANSACTION_COUNTER_FILE = "transaction_counter.txt";
+	private static final String RECEIPT_JOURNAL_DIRECTORY = "receipts";
+	public static final String BLOCK_SIZE_PROPERTY = "quickmart.transactions.blockSize";
+	public static final int BLOCK_SIZE = 100;
+	public static final String ASYNC_RECEIPTS_PROPERTY = "quickmart.receipts.async";
+	public static final String RECEIPT_MAX_LATENCY_PROPERTY = "quickmart.receipts.maxLatencyMillis";
+	public static final int RECEIPT_MAX_LATENCY_MILLIS = 5;
+	public static final String RECEIPT_QUEUE_CAPACITY_PROPERTY = "quickmart.receipts.queueCapacity";
+	public static final int RECEIPT_QUEUE_CAPACITY = 1024;
+	public static final String RECEIPT_STORE_PROPERTY = "quickmart.receipts.store";
+	public static final String SEGMENT_BYTES_PROPERTY = "quickmart.receipts.segmentBytes";
+	public static final String SALES_SAVE_EVERY_PROPERTY = "quickmart.sales.saveEvery";
+	public static final int SALES_SAVE_EVERY = 100;
+	private static final String SALES_DIRECTORY = "sales";
+	private static final ReceiptStore receiptStore;
+	private static final TransactionNumberAllocator allocator;
+	private static final ReceiptWriter receiptWriter;
+	private static final SalesAggregator sales;
+	private static final int salesSaveEvery;
+	private static final AtomicInteger unsavedSales = new AtomicInteger();
+	private static final ExecutorService salesSaver = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "sales-saver");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	static {
+		receiptStore = openReceiptStore();
+		allocator = new TransactionNumberAllocator(DataFiles.resolve(TRANSACTION_COUNTER_FILE),
+			loadTransactionCounter(), Integer.getInteger(BLOCK_SIZE_PROPERTY, BLOCK_SIZE));
+		receiptWriter = Boolean.parseBoolean(System.getProperty(ASYNC_RECEIPTS_PROPERTY, "true"))
+			? new ReceiptWriter(receiptStore, Integer.getInteger(RECEIPT_QUEUE_CAPACITY_PROPERTY, RECEIPT_QUEUE_CAPACITY),
+				Integer.getInteger(RECEIPT_MAX_LATENCY_PROPERTY, RECEIPT_MAX_LATENCY_MILLIS), TimeUnit.MILLISECONDS)
+			: null;
+		sales = new SalesAggregator(DataFiles.resolve(SALES_DIRECTORY));
+		salesSaveEvery = Math.max(1, Integer.getInteger(SALES_SAVE_EVERY_PROPERTY, SALES_SAVE_EVERY));
+		Runtime.getRuntime().addShutdownHook(new Thread(TransactionManager::shutdown, "transaction-shutdown"));
+	}
+	
+	/**
+	 * Opens the receipt journal, or the per-file store when configured or when the journal can't be opened
+	 */
+	private static ReceiptStore openReceiptStore() {
+		if ("files".equals(System.getProperty(RECEIPT_STORE_PROPERTY))) {
+			return new ReceiptFiles(DataFiles.directory());
+		}
+		try {
+			return new ReceiptJournal(DataFiles.resolve(RECEIPT_JOURNAL_DIRECTORY),
+				Long.getLong(SEGMENT_BYTES_PROPERTY, ReceiptJournal.DEFAULT_SEGMENT_BYTES));
+		} catch (IOException e) {
+			System.err.println("Error opening receipt journal (" + e.getMessage() + "), saving receipts as files");
+			return new ReceiptFiles(DataFiles.directory());
+		}
+	}
+	
+	/**
+	 * Loads transaction counter from file
+	 */
+	private static int loadTransactionCounter() {
+		File file = DataFiles.resolve(TRANSACTION_COUNTER_FILE);
+		try {
+			String content = SnapshotFile.readVerified(file);
+			// First run: start from 1
+			return content == null ? 1 : parseCounter(content);
+		} catch (IOException | NumberFormatException e) {
+			int recovered = recoverTransactionCounter(file);
+			System.err.println("Transaction counter is corrupted (" + e.getMessage()
+				+ "), resuming at " + recovered);
+			return recovered;
+		}
+	}
+	
+	private static int parseCounter(String content) {
+		String line = content.trim();
+		int newline = line.indexOf('\n');
+		return Integer.parseInt((newline >= 0 ? line.substring(0, newline) : line).trim());
+	}
+	
+	/**
+	 * Finds the first safe transaction number from the backup counter and existing receipts
+	 */
+	private static int recoverTransactionCounter(File counterFile) {
+		int next = 1;
+		try {
+			String backup = SnapshotFile.readVerified(SnapshotFile.backupOf(counterFile));
+			if (backup != null) {
+				next = parseCounter(backup);
+			}
+		} catch (IOException | NumberFormatException e) {
+			// Fall back to the receipt files alone
+		}
+		// Receipts saved as files by older versions, then the configured store
+		next = Math.max(next, new ReceiptFiles(DataFiles.directory()).getLastTransactionNumber() + 1);
+		try {
+			next = Math.max(next, receiptStore.getLastTransactionNumber() + 1);
+		} catch (IOException e) {
+			System.err.println("Error reading receipt store: " + e.getMessage());
+		}
+		return next;
+	}
+	
+	/**
+	 * Gets the next transaction number
+	 */
+	public static int getNextTransactionNumber() {
+		return Math.toIntExact(allocator.allocate());
+	}
+	
+	/**
+	 * Gets the sales rollups
+	 */
+	public static SalesAggregator getSales() {
+		return sales;
+	}
+	
+	/**
+	 * Adds a sale to the rollups, saving them in the background every salesSaveEvery sales
+	 */
+	private static void recordSale(Receipt receipt) {
+		sales.record(receipt);
+		if (unsavedSales.incrementAndGet() >= salesSaveEvery) {
+			unsavedSales.set(0);
+			salesSaver.execute(TransactionManager::saveSales);
+		}
+	}
+	
+	private static void saveSales() {
+		try {
+			sales.save();
+		} catch (IOException e) {
+			System.err.println("Error saving sales rollups: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Gets the saved receipt of a past transaction, or null if there is none
+	 */
+	public static String lookupReceipt(int transactionNumber) throws IOException {
+		try {
+			flushReceipts();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return receiptStore.read(transactionNumber);
+	}
+	
+	/**
+	 * Waits until every queued receipt has been written
+	 */
+	public static void flushReceipts() throws InterruptedException {
+		if (receiptWriter != null) {
+			receiptWriter.flush();
+		}
+	}
+	
+	/**
+	 * Writes the queued receipts and persists the exact transaction counter (called on a clean shutdown)
+	 */
+	public static void shutdown() {
+		if (receiptWriter != null) {
+			receiptWriter.close();
+		}
+		try {
+			receiptStore.close();
+		} catch (IOException e) {
+			System.err.println("Error closing receipt store: " + e.getMessage());
+		}
+		// Waits for a background save in progress (saves are serialized) and writes what came after it
+		saveSales();
+		allocator.close();
+	}
+	
+	/**
+	 * Processes a complete transaction
+	 */
+	public static Receipt processTransaction(Cart cart, BigDecimal cashPayment, Inventory inventory) {
+		// Validate payment
+		if (cashPayment.compareTo(cart.getTotal()) < 0) {
+			throw new IllegalArgumentException("Insufficient payment");
+		}
+		
+		// Update inventory (all-or-nothing, safe against other lanes)
+		if (!cart.updateInventory(inventory)) {
+			throw new IllegalArgumentException("Insufficient stock");
+		}
+		
+		// Get transaction number
+		int transactionNumber;
+		try {
+			transactionNumber = getNextTransactionNumber();
+		} catch (IllegalStateException e) {
+			inventory.cancelSale(cart.getItems());
+			throw e;
+		}
+		
+		// Create receipt
+		Receipt receipt = new Receipt(transactionNumber, cart, cashPayment);
+		inventory.saveStockChanges();
+		
+		// Save receipt
+		if (receiptWriter != null) {
+			receipt.saveTo(receiptWriter);
+		} else {
+			receipt.saveTo(receiptStore);
+		}
+		recordSale(receipt);
+		
+		return receipt;
+	}
 } 
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.quickmart.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out unique transaction numbers without locking, persisting them in blocks
+ * 
+ * ASSUMPTIONS:
+ * - The counter file holds a high-water mark: every number below it may already be in use
+ * - Numbers are reserved in blocks; the file is only rewritten when a new block starts
+ * - No number is handed out before the block containing it has been persisted; if the counter file
+ *   can't be written, allocate() fails instead
+ * - After a crash the allocator resumes at the stored mark, skipping the unused rest of the block
+ * - On a clean shutdown (close) the exact next number is persisted, so no numbers are skipped
+ * - Safe for any number of threads (lanes) in one JVM
+ */
+public class TransactionNumberAllocator {
+	private final File file;
+	private final int blockSize;
+	private final AtomicLong next;
+	private volatile long reservedLimit;
+	
+	public TransactionNumberAllocator(File file, long start, int blockSize) {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Block size must be at least 1");
+		}
+		this.file = file;
+		this.blockSize = blockSize;
+		this.next = new AtomicLong(start);
+		this.reservedLimit = start;
+	}
+	
+	/**
+	 * Allocates the next transaction number
+	 * Throws IllegalStateException if the high-water mark covering it can't be persisted
+	 */
+	public long allocate() {
+		long number = next.getAndIncrement();
+		if (number >= reservedLimit) {
+			try {
+				reserveThrough(number);
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot save transaction counter: " + e.getMessage(), e);
+			}
+		}
+		return number;
+	}
+	
+	/**
+	 * Persists a new high-water mark covering the given number
+	 */
+	private synchronized void reserveThrough(long number) throws IOException {
+		if (number < reservedLimit) {
+			return;
+		}
+		long limit = number + blockSize;
+		persist(limit);
+		// Only advanced once the mark is on disk, so a failed write fails every allocation past the old mark
+		reservedLimit = limit;
+	}
+	
+	/**
+	 * Persists the exact next number so a clean restart does not skip the rest of the block
+	 * Lanes may still be allocating (e.g. from the shutdown hook); their numbers stay covered
+	 */
+	public synchronized void close() {
+		long reserved = reservedLimit;
+		// Sends every allocation through reserveThrough, which waits for this lock, so no number can be
+		// taken on the fast path below the mark saved here
+		reservedLimit = Long.MIN_VALUE;
+		long exactNext = next.get();
+		try {
+			persist(exactNext);
+			reservedLimit = exactNext;
+		} catch (IOException e) {
+			// The last persisted mark still covers every number handed out
+			reservedLimit = reserved;
+			System.err.println("Error saving transaction counter: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Gets the number the next allocation will return
+	 */
+	public long peek() {
+		return next.get();
+	}
+	
+	private void persist(long highWaterMark) throws IOException {
+		SnapshotFile.write(file, highWaterMark + System.lineSeparator());
+	}
+}
@@ -0,0 +1,152 @@
+package com.quickmart.app;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a completed transaction, read through a reusable flyweight
+ *
+ * ASSUMPTIONS:
+ * - Layout (big-endian): a 72-byte header, one 24-byte slot per cart line, then the line names (UTF-8)
+ * - Header: record length (int), format version (byte), flags (byte, bit 0 = member), line count (short),
+ *   transaction number (int), timestamp in epoch millis (long), subtotal, tax, total, cash, change and
+ *   member savings in cents (longs), total number of items (int)
+ * - Line slot: unit price in cents (long), quantity (int), SKU id (int, the item's product ID or -1 when
+ *   it has none), name offset from the record start (int), name length in bytes (short), flags (short,
+ *   bit 0 = taxable)
+ * - Money is stored in whole cents, rounded half-up like Money.toCents
+ * - The timestamp is the receipt's local date-time in the system time zone
+ * - A reader wraps a buffer at an offset and decodes fields on demand; nothing is copied
+ *   except the line names, and only when asked for
+ */
+public final class TransactionRecord {
+	public static final byte VERSION = 1;
+	static final int HEADER_BYTES = 72;
+	static final int LINE_BYTES = 24;
+	private static final int FLAG_MEMBER = 1;
+	private static final int LINE_FLAG_TAXABLE = 1;
+	
+	// Header field offsets
+	private static final int LENGTH = 0;
+	private static final int VERSION_OFFSET = 4;
+	private static final int FLAGS = 5;
+	private static final int LINE_COUNT = 6;
+	private static final int TRANSACTION_NUMBER = 8;
+	private static final int TIMESTAMP = 12;
+	private static final int SUBTOTAL = 20;
+	private static final int TAX = 28;
+	private static final int TOTAL = 36;
+	private static final int CASH = 44;
+	private static final int CHANGE = 52;
+	private static final int MEMBER_SAVINGS = 60;
+	private static final int TOTAL_ITEMS = 68;
+	
+	// Line slot field offsets
+	private static final int LINE_UNIT_PRICE = 0;
+	private static final int LINE_QUANTITY = 8;
+	private static final int LINE_SKU_ID = 12;
+	private static final int LINE_NAME_OFFSET = 16;
+	private static final int LINE_NAME_LENGTH = 20;
+	private static final int LINE_FLAGS = 22;
+	
+	private ByteBuffer buffer;
+	private int offset;
+	
+	/**
+	 * Points this reader at the record starting at the given offset
+	 */
+	public TransactionRecord wrap(ByteBuffer buffer, int offset) {
+		this.buffer = buffer;
+		this.offset = offset;
+		return this;
+	}
+	
+	/**
+	 * Encodes a receipt as a binary record
+	 */
+	public static byte[] encode(Receipt receipt) {
+		List<CartItem> items = receipt.getItems();
+		byte[][] names = new byte[items.size()][];
+		int length = HEADER_BYTES + items.size() * LINE_BYTES;
+		for (int i = 0; i < names.length; i++) {
+			names[i] = items.get(i).getItem().getName().getBytes(StandardCharsets.UTF_8);
+			length += names[i].length;
+		}
+		
+		ByteBuffer out = ByteBuffer.allocate(length);
+		out.putInt(length)
+			.put(VERSION)
+			.put((byte) (receipt.isMember() ? FLAG_MEMBER : 0))
+			.putShort((short) items.size())
+			.putInt(receipt.getTransactionNumber())
+			.putLong(receipt.getDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+			.putLong(Money.toCents(receipt.getSubtotal()))
+			.putLong(Money.toCents(receipt.getTax()))
+			.putLong(Money.toCents(receipt.getTotal()))
+			.putLong(Money.toCents(receipt.getCashPayment()))
+			.putLong(Money.toCents(receipt.getChange()))
+			.putLong(Money.toCents(receipt.getMemberSavings()))
+			.putInt(receipt.getTotalItems());
+		int nameOffset = HEADER_BYTES + items.size() * LINE_BYTES;
+		for (int i = 0; i < names.length; i++) {
+			CartItem line = items.get(i);
+			out.putLong(line.getUnitPriceCents())
+				.putInt(line.getQuantity())
+				.putInt(line.getItem().getId() > 0 ? line.getItem().getId() : -1)
+				.putInt(nameOffset)
+				.putShort((short) names[i].length)
+				.putShort((short) (line.getItem().isTaxable() ? LINE_FLAG_TAXABLE : 0));
+			nameOffset += names[i].length;
+		}
+		for (byte[] name : names) {
+			out.put(name);
+		}
+		return out.array();
+	}
+	
+	// Header fields
+	public int getLength() { return buffer.getInt(offset + LENGTH); }
+	public byte getVersion() { return buffer.get(offset + VERSION_OFFSET); }
+	public boolean isMember() { return (buffer.get(offset + FLAGS) & FLAG_MEMBER) != 0; }
+	public int getLineCount() { return buffer.getShort(offset + LINE_COUNT) & 0xFFFF; }
+	public int getTransactionNumber() { return buffer.getInt(offset + TRANSACTION_NUMBER); }
+	public long getTimestamp() { return buffer.getLong(offset + TIMESTAMP); }
+	public long getSubtotalCents() { return buffer.getLong(offset + SUBTOTAL); }
+	public long getTaxCents() { return buffer.getLong(offset + TAX); }
+	public long getTotalCents() { return buffer.getLong(offset + TOTAL); }
+	public long getCashCents() { return buffer.getLong(offset + CASH); }
+	public long getChangeCents() { return buffer.getLong(offset + CHANGE); }
+	public long getMemberSavingsCents() { return buffer.getLong(offset + MEMBER_SAVINGS); }
+	public int getTotalItems() { return buffer.getInt(offset + TOTAL_ITEMS); }
+	
+	/**
+	 * Gets the transaction's local date-time
+	 */
+	public LocalDateTime getDateTime() {
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(getTimestamp()), ZoneId.systemDefault());
+	}
+	
+	// Line fields
+	public long getUnitPriceCents(int line) { return buffer.getLong(lineOffset(line) + LINE_UNIT_PRICE); }
+	public int getQuantity(int line) { return buffer.getInt(lineOffset(line) + LINE_QUANTITY); }
+	public int getSkuId(int line) { return buffer.getInt(lineOffset(line) + LINE_SKU_ID); }
+	public boolean isTaxable(int line) { return (buffer.getShort(lineOffset(line) + LINE_FLAGS) & LINE_FLAG_TAXABLE) != 0; }
+	
+	/**
+	 * Decodes a line's item name (the only accessor that allocates)
+	 */
+	public String getName(int line) {
+		int lineOffset = lineOffset(line);
+		byte[] name = new byte[buffer.getShort(lineOffset + LINE_NAME_LENGTH) & 0xFFFF];
+		buffer.get(offset + buffer.getInt(lineOffset + LINE_NAME_OFFSET), name);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+	
+	private int lineOffset(int line) {
+		return offset + HEADER_BYTES + line * LINE_BYTES;
+	}
+}
@@ -0,0 +1,137 @@
+package com.quickmart.app;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Daily files of binary transaction records ("sales_<yyyyMMdd>.bin") for analytics
+ *
+ * ASSUMPTIONS:
+ * - Records are appended back to back in the TransactionRecord format; the receipt's day picks the file
+ * - A record cut short by a crash is ignored by scan() and cut off when the file is next opened for appending
+ * - Records with an unknown format version are skipped using their length
+ * - scan() memory-maps the file and hands every record to the visitor through one reused flyweight
+ */
+public class TransactionRecordLog implements Closeable {
+	private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+	
+	private final File directory;
+	private FileChannel channel;
+	private LocalDate day;
+	private boolean dirty;
+	
+	public TransactionRecordLog(File directory) {
+		this.directory = directory;
+	}
+	
+	/**
+	 * Gets the record file of a day
+	 */
+	public File fileFor(LocalDate day) {
+		return new File(directory, "sales_" + day.format(DAY_FORMAT) + ".bin");
+	}
+	
+	/**
+	 * Appends the receipt's binary record to its day's file
+	 */
+	public synchronized void append(Receipt receipt) throws IOException {
+		LocalDate receiptDay = receipt.getDateTime().toLocalDate();
+		if (channel == null || !receiptDay.equals(day)) {
+			closeChannel();
+			channel = FileChannel.open(fileFor(receiptDay).toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			channel.truncate(completeLength(channel));
+			channel.position(channel.size());
+			day = receiptDay;
+		}
+		ByteBuffer record = ByteBuffer.wrap(TransactionRecord.encode(receipt));
+		while (record.hasRemaining()) {
+			channel.write(record);
+		}
+		dirty = true;
+	}
+	
+	/**
+	 * Makes the appended records durable
+	 */
+	public synchronized void sync() throws IOException {
+		if (dirty) {
+			channel.force(false);
+			dirty = false;
+		}
+	}
+	
+	@Override
+	public synchronized void close() throws IOException {
+		closeChannel();
+	}
+	
+	private void closeChannel() throws IOException {
+		if (channel != null) {
+			sync();
+			channel.close();
+			channel = null;
+		}
+	}
+	
+	/**
+	 * Finds where the last complete record of a file ends
+	 */
+	private static long completeLength(FileChannel channel) throws IOException {
+		long size = channel.size();
+		ByteBuffer length = ByteBuffer.allocate(4);
+		long offset = 0;
+		while (offset + TransactionRecord.HEADER_BYTES <= size) {
+			length.clear();
+			channel.read(length, offset);
+			int recordLength = length.getInt(0);
+			if (recordLength < TransactionRecord.HEADER_BYTES || offset + recordLength > size) {
+				break;
+			}
+			offset += recordLength;
+		}
+		return offset;
+	}
+	
+	/**
+	 * Visits every complete record of a record file in order
+	 * The record passed to the visitor is only valid during the call
+	 * Returns the number of records visited
+	 */
+	public static int scan(File file, Consumer<TransactionRecord> visitor) throws IOException {
+		if (!file.exists()) {
+			return 0;
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Record file too large to map: " + file.getName());
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			TransactionRecord record = new TransactionRecord();
+			int count = 0;
+			int offset = 0;
+			while (offset + TransactionRecord.HEADER_BYTES <= size) {
+				record.wrap(buffer, offset);
+				int length = record.getLength();
+				if (length < TransactionRecord.HEADER_BYTES || offset + (long) length > size) {
+					break;
+				}
+				if (record.getVersion() == TransactionRecord.VERSION) {
+					visitor.accept(record);
+					count++;
+				}
+				offset += length;
+			}
+			return count;
+		}
+	}
+}
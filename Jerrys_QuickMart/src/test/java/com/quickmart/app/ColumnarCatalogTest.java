@@ -0,0 +1,117 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for ColumnarCatalog class
+ */
+public class ColumnarCatalogTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testLoadMatchesInventory() throws IOException {
+        File file = tempDir.resolve("inventory.txt").toFile();
+        Files.writeString(file.toPath(), "Chips: 10, $1,99, $1,79, Taxable\n"
+            + "Milk: 20, $3.75, $3.50, Tax-Exempt, 012345678905\n"
+            + "Café: 3, $2.10, $2.00, Taxable\n"
+            + "Chips: 12, $1.99, $1.69, Taxable\n");
+        ColumnarCatalog catalog = ColumnarCatalog.load(file);
+        Inventory inventory = new Inventory(file);
+        assertEquals(3, catalog.size());
+        for (Item expected : inventory.getAllItems()) {
+            Item view = catalog.getItemById(expected.getId());
+            assertEquals(expected.toString(), view.toString());
+            assertEquals(expected.getName(), view.getName());
+            assertEquals(expected.getMemberPrice(), view.getMemberPrice());
+            assertEquals(expected.getMemberSavingsCents(), view.getMemberSavingsCents());
+            assertEquals(view, catalog.getItem(expected.getName()));
+        }
+        assertEquals(12, catalog.getItem("Chips").getQuantity());
+        assertEquals(1, catalog.getItem("Chips").getId());
+        assertEquals("Café", catalog.getItemById(3).getName());
+        assertEquals("Milk", catalog.getItemByBarcode(12345678905L).getName());
+        assertNull(catalog.getItem("Bread"));
+        assertNull(catalog.getItemById(4));
+        assertNull(catalog.getItemByBarcode(1));
+    }
+    
+    @Test
+    void testViewsShareTheStockColumn() {
+        ColumnarCatalog catalog = new ColumnarCatalog();
+        int id = catalog.add(new Item("Red Bull", 10, new BigDecimal("4.30"), new BigDecimal("4.00"), true));
+        Item first = catalog.getItemById(id);
+        Item second = catalog.getItem("Red Bull");
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        
+        assertTrue(first.tryReduceStock(4));
+        assertEquals(6, second.getQuantity());
+        assertFalse(second.tryReduceStock(7));
+        second.setQuantity(9);
+        first.adjustReserved(5);
+        first.adjustReserved(-8);
+        assertEquals(0, second.getReservedQuantity());
+        first.adjustReserved(2);
+        assertEquals(7, second.getAvailableQuantity());
+    }
+    
+    @Test
+    void testConcurrentSalesNeverOversell() throws InterruptedException {
+        ColumnarCatalog catalog = new ColumnarCatalog();
+        catalog.add("Chips", 1000, 199, 179, true, 0);
+        List<Thread> lanes = new ArrayList<>();
+        int[] sold = new int[8];
+        for (int lane = 0; lane < sold.length; lane++) {
+            int number = lane;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (catalog.getItem("Chips").tryReduceStock(1)) {
+                        sold[number]++;
+                    }
+                }
+            });
+            lanes.add(thread);
+            thread.start();
+        }
+        for (Thread thread : lanes) {
+            thread.join();
+        }
+        int total = 0;
+        for (int count : sold) {
+            total += count;
+        }
+        assertEquals(1000, total);
+        assertEquals(0, catalog.getItem("Chips").getQuantity());
+    }
+    
+    @Test
+    void testGrowsAndSavesRoundTrip() throws IOException {
+        ColumnarCatalog catalog = new ColumnarCatalog(2);
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i + 1, catalog.add("Product " + i, i, 100 + i, 90 + i, i % 2 == 0, i % 3 == 0 ? 0 : 40000000L + i));
+        }
+        assertEquals(5000, catalog.getAllItems().size());
+        assertEquals("Product 4999", catalog.getAllItems().get(4999).getName());
+        
+        File file = tempDir.resolve("catalog.txt").toFile();
+        catalog.save(file);
+        ColumnarCatalog reloaded = ColumnarCatalog.load(file);
+        assertEquals(5000, reloaded.size());
+        for (int id = 1; id <= 5000; id += 97) {
+            assertEquals(catalog.getItemById(id).toString(), reloaded.getItemById(id).toString());
+        }
+        assertEquals("Product 4001", reloaded.getItemByBarcode(40004001L).getName());
+    }
+}
@@ -0,0 +1,106 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for InventoryParser class
+ */
+public class InventoryParserTest {
+    
+    private List<Item> items;
+    private List<String> errors;
+    
+    @BeforeEach
+    void setUp() {
+        items = new ArrayList<>();
+        errors = new ArrayList<>();
+    }
+    
+    private Item parse(String line) {
+        char[] chars = line.toCharArray();
+        return InventoryParser.parseLine(chars, 0, chars.length, errors::add);
+    }
+    
+    @Test
+    void testEuropeanFormat() {
+        Item item = parse("Red Bull: 7, $4,30, $4,00, Taxable");
+        assertEquals("Red Bull", item.getName());
+        assertEquals(7, item.getQuantity());
+        assertEquals(new BigDecimal("4.30"), item.getRegularPrice());
+        assertEquals(new BigDecimal("4.00"), item.getMemberPrice());
+        assertTrue(item.isTaxable());
+    }
+    
+    @Test
+    void testUsFormat() {
+        Item item = parse("Milk: 5, $3.75, $3.5, Tax-Exempt");
+        assertEquals(new BigDecimal("3.75"), item.getRegularPrice());
+        assertEquals(new BigDecimal("3.5"), item.getMemberPrice());
+        assertFalse(item.isTaxable());
+    }
+    
+    @Test
+    void testThousandsSeparator() {
+        Item item = parse("TV: 1, $1,234.56, $1,199.00, Taxable");
+        assertEquals(new BigDecimal("1234.56"), item.getRegularPrice());
+        assertEquals(new BigDecimal("1199.00"), item.getMemberPrice());
+    }
+    
+    @Test
+    void testOptionalBarcode() {
+        assertEquals(0, parse("Milk: 5, $3.75, $3.50, Tax-Exempt").getBarcode());
+        Item item = parse("Milk: 5, $3.75, $3.50, Tax-Exempt, 012345678905");
+        assertEquals(12345678905L, item.getBarcode());
+        assertFalse(item.isTaxable());
+        assertEquals("012345678905", Item.formatBarcode(item.getBarcode()));
+        assertEquals(4006381333931L, parse("Pencil: 5, $1,00, $0,90, Taxable, 4006381333931").getBarcode());
+        
+        assertNull(parse("Bad: 5, $1.00, $0.90, Taxable, 12AB"));
+        assertNull(parse("Bad: 5, $1.00, $0.90, Taxable, 000000"));
+        assertNull(parse("Bad: 5, $1.00, $0.90, Taxable, 123456789012345"));
+        assertNull(parse("Bad: 5, $1.00, $0.90, Taxable, 12345678, 9"));
+        assertEquals(4, errors.size());
+        assertTrue(errors.get(3).startsWith("Insufficient data in line"));
+    }
+    
+    @Test
+    void testInvalidLinesAreReported() {
+        assertNull(parse("No colon here"));
+        assertNull(parse("Bad: 5, $1.00, Taxable"));
+        assertNull(parse("Bad: five, $1.00, $0.90, Taxable"));
+        assertNull(parse("Bad: 5, $1,00,0, $0.90, Taxable"));
+        assertEquals(4, errors.size());
+        assertTrue(errors.get(0).startsWith("Invalid format in line"));
+        assertTrue(errors.get(1).startsWith("Insufficient data in line"));
+        assertTrue(errors.get(2).startsWith("Error in numeric format in line"));
+        assertTrue(errors.get(3).startsWith("Error in numeric format in line"));
+    }
+    
+    @Test
+    void testStreamingSkipsBlankLines() throws IOException {
+        String content = "Chips: 10, $1,99, $1,79, Taxable\r\n\r\n   \nBread: 6, $2.50, $2.25, Tax-Exempt";
+        int count = InventoryParser.parse(new StringReader(content), items::add, errors::add);
+        assertEquals(2, count);
+        assertEquals("Chips", items.get(0).getName());
+        assertEquals("Bread", items.get(1).getName());
+        assertTrue(errors.isEmpty());
+    }
+    
+    @Test
+    void testOnlyTheChecksumFooterIsSkipped() throws IOException {
+        String content = "#1 Hits Candy: 12, $0,99, $0,89, Taxable\n#CRC32:0a1b2c3d\n";
+        int count = InventoryParser.parse(new StringReader(content), items::add, errors::add);
+        assertEquals(1, count);
+        assertEquals("#1 Hits Candy", items.get(0).getName());
+        assertEquals(12, items.get(0).getQuantity());
+        assertTrue(errors.isEmpty());
+    }
+}
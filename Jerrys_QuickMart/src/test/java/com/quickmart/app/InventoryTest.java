@@ -0,0 +1,355 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for Inventory class
+ */
+public class InventoryTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private File inventoryFile;
+    private String originalSnapshot;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        inventoryFile = tempDir.resolve("inventory.txt").toFile();
+        originalSnapshot = "Chips: 10, $1,99, $1,79, Taxable\nMilk: 20, $3.75, $3.50, Tax-Exempt\n";
+        Files.writeString(inventoryFile.toPath(), originalSnapshot);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(Inventory.COMPACT_EVERY_PROPERTY);
+    }
+    
+    @Test
+    void testLoad() {
+        Inventory inventory = new Inventory(inventoryFile);
+        assertEquals(2, inventory.getAllItems().size());
+        assertEquals(10, inventory.getItem("Chips").getQuantity());
+        assertTrue(inventory.hasItem("Milk"));
+    }
+    
+    @Test
+    void testProductIdsFollowFileOrder() throws IOException {
+        Files.writeString(inventoryFile.toPath(), originalSnapshot + "Bread: 5, $2.00, $1.80, Tax-Exempt\n"
+            + "Chips: 12, $1.99, $1.79, Taxable\n");
+        Inventory inventory = new Inventory(inventoryFile);
+        assertEquals(3, inventory.getAllItems().size());
+        // A repeated name keeps the first line's ID with the last line's values
+        assertEquals(1, inventory.getItem("Chips").getId());
+        assertEquals(12, inventory.getItemById(1).getQuantity());
+        assertSame(inventory.getItem("Milk"), inventory.getItemById(2));
+        assertSame(inventory.getItem("Bread"), inventory.getItemById(3));
+        assertNull(inventory.getItemById(0));
+        assertNull(inventory.getItemById(4));
+        assertEquals(List.of("Chips", "Milk", "Bread"),
+            inventory.getAllItems().stream().map(Item::getName).collect(Collectors.toList()));
+    }
+    
+    @Test
+    void testAddedItemsKeepTheirIdsAcrossRestarts() {
+        Inventory inventory = new Inventory(inventoryFile);
+        for (int i = 0; i < 40; i++) {
+            assertTrue(inventory.addItem(new Item("Product " + i, i, 100, 90, false)));
+        }
+        assertFalse(inventory.addItem(new Item("Milk", 1, 100, 90, false)));
+        assertEquals(42, inventory.getAllItems().size());
+        assertEquals("Product 39", inventory.getItemById(42).getName());
+        
+        Inventory reloaded = new Inventory(inventoryFile);
+        for (Item item : inventory.getAllItems()) {
+            assertEquals(item.getName(), reloaded.getItemById(item.getId()).getName());
+        }
+    }
+    
+    @Test
+    void testListItemsByPage() {
+        Inventory inventory = new Inventory(inventoryFile);
+        for (int i = 0; i < 23; i++) {
+            inventory.addItem(new Item("Product " + i, i, 100, 90, false));
+        }
+        assertEquals(25, inventory.size());
+        List<String> page = inventory.listItems(21, 10);
+        assertEquals(5, page.size());
+        assertEquals("21. " + inventory.getItemById(21), page.get(0));
+        assertEquals("25. " + inventory.getItemById(25), page.get(4));
+        assertTrue(inventory.listItems(26, 10).isEmpty());
+        assertEquals(2, inventory.listItems(0, 2).size());
+        
+        // Pages chain through the returned cursor until the last one
+        int next = inventory.displayInventoryPage(1, 10);
+        assertEquals(11, next);
+        next = inventory.displayInventoryPage(next, 10);
+        assertEquals(21, next);
+        assertEquals(0, inventory.displayInventoryPage(next, 10));
+    }
+    
+    @Test
+    void testListingLineIsRenderedAgainAfterStockChanges() {
+        Inventory inventory = new Inventory(inventoryFile);
+        Item chips = inventory.getItem("Chips");
+        String line = chips.getListingLine();
+        assertEquals("1. " + chips, line);
+        assertSame(line, inventory.listItems(1, 1).get(0));
+        
+        chips.reduceStock(3);
+        assertEquals("1. " + chips, inventory.listItems(1, 1).get(0));
+        assertTrue(chips.getListingLine().contains(": 7,"));
+        inventory.updateItemStock("Chips", 12);
+        assertTrue(chips.getListingLine().contains(": 12,"));
+    }
+    
+    @Test
+    void testScanLookupByBarcode() throws IOException {
+        Files.writeString(inventoryFile.toPath(), originalSnapshot
+            + "Bread: 5, $2.00, $1.80, Tax-Exempt, 012345678905\n"
+            + "Eggs: 12, $3.00, $2.80, Tax-Exempt, 012345678905\n");
+        Inventory inventory = new Inventory(inventoryFile);
+        // A repeated barcode stays with the first item
+        assertSame(inventory.getItem("Bread"), inventory.getItemByBarcode(12345678905L));
+        assertNull(inventory.getItemByBarcode(0));
+        assertNull(inventory.getItemByBarcode(4006381333931L));
+        
+        assertFalse(inventory.addItem(new Item("Rolls", 1, new BigDecimal("1.00"), new BigDecimal("0.90"), false, 12345678905L)));
+        assertTrue(inventory.addItem(new Item("Pencil", 1, new BigDecimal("1.00"), new BigDecimal("0.90"), true, 4006381333931L)));
+        assertSame(inventory.getItem("Pencil"), inventory.getItemByBarcode(4006381333931L));
+        
+        // Barcodes survive the snapshot; items without one keep the old format
+        inventory.compact();
+        String snapshot = Files.readString(inventoryFile.toPath());
+        assertTrue(snapshot.contains("Tax-Exempt, 012345678905"));
+        assertTrue(snapshot.contains("Taxable, 4006381333931"));
+        assertTrue(snapshot.contains("Milk: 20, $3"));
+        Inventory reloaded = new Inventory(inventoryFile);
+        assertEquals("Pencil", reloaded.getItemByBarcode(4006381333931L).getName());
+        assertEquals("Bread", reloaded.getItemByBarcode(12345678905L).getName());
+    }
+    
+    @Test
+    void testStockChangesAreJournaledAndReplayed() throws IOException {
+        Inventory inventory = new Inventory(inventoryFile);
+        inventory.updateItemStock("Chips", 7);
+        inventory.saveStockChanges();
+        inventory.updateItemStock("Chips", 4);
+        inventory.updateItemStock("Milk", 18);
+        inventory.saveStockChanges();
+        
+        // Snapshot is untouched, changes live in the journal
+        assertEquals(originalSnapshot, Files.readString(inventoryFile.toPath()));
+        
+        Inventory reloaded = new Inventory(inventoryFile);
+        assertEquals(4, reloaded.getItem("Chips").getQuantity());
+        assertEquals(18, reloaded.getItem("Milk").getQuantity());
+    }
+    
+    @Test
+    void testAddedItemsAreJournaledAndReplayed() throws IOException {
+        Inventory inventory = new Inventory(inventoryFile);
+        assertTrue(inventory.addItem(new Item("#1 Hits Candy", 12, new BigDecimal("0.99"), new BigDecimal("0.89"), true, 4006381333931L)));
+        inventory.updateItemStock("#1 Hits Candy", 11);
+        inventory.saveStockChanges();
+        
+        // Snapshot is untouched, the product and its sale live in the journal
+        assertEquals(originalSnapshot, Files.readString(inventoryFile.toPath()));
+        
+        Inventory reloaded = new Inventory(inventoryFile);
+        Item candy = reloaded.getItemById(3);
+        assertEquals("#1 Hits Candy", candy.getName());
+        assertEquals(11, candy.getQuantity());
+        assertSame(candy, reloaded.getItemByBarcode(4006381333931L));
+        
+        reloaded.compact();
+        assertEquals(0, Files.size(tempDir.resolve("inventory.txt.journal")));
+        assertEquals(11, new Inventory(inventoryFile).getItem("#1 Hits Candy").getQuantity());
+    }
+    
+    @Test
+    void testTornJournalRecordIsIgnored() throws IOException {
+        Files.writeString(tempDir.resolve("inventory.txt.journal"), "3\tChips\n1\tMil");
+        Inventory inventory = new Inventory(inventoryFile);
+        assertEquals(3, inventory.getItem("Chips").getQuantity());
+        assertEquals(20, inventory.getItem("Milk").getQuantity());
+    }
+    
+    @Test
+    void testTornJournalRecordIsCutBeforeNextAppend() throws IOException {
+        Path journal = tempDir.resolve("inventory.txt.journal");
+        Files.writeString(journal, "3\tChips\n1");
+        Inventory inventory = new Inventory(inventoryFile);
+        assertEquals("3\tChips\n", Files.readString(journal));
+        inventory.updateItemStock("Chips", 2);
+        inventory.saveStockChanges();
+        
+        Inventory reloaded = new Inventory(inventoryFile);
+        assertEquals(2, reloaded.getItem("Chips").getQuantity());
+    }
+    
+    @Test
+    void testJournalIsCompactedIntoSnapshot() throws IOException {
+        System.setProperty(Inventory.COMPACT_EVERY_PROPERTY, "2");
+        Inventory inventory = new Inventory(inventoryFile);
+        inventory.updateItemStock("Chips", 9);
+        inventory.saveStockChanges();
+        inventory.updateItemStock("Chips", 8);
+        inventory.saveStockChanges(); // Second record reaches the threshold
+        
+        assertEquals(0, Files.size(tempDir.resolve("inventory.txt.journal")));
+        Inventory reloaded = new Inventory(inventoryFile);
+        assertEquals(8, reloaded.getItem("Chips").getQuantity());
+        assertEquals(20, reloaded.getItem("Milk").getQuantity());
+    }
+    
+    @Test
+    void testDamagedSnapshotFallsBackToBackup() throws IOException {
+        Inventory inventory = new Inventory(inventoryFile);
+        inventory.saveInventory(); // Backup keeps the original file
+        inventory.updateItemStock("Chips", 5);
+        inventory.saveInventory();
+        
+        String damaged = Files.readString(inventoryFile.toPath()).replace("Chips: 5", "Chips: 9");
+        Files.writeString(inventoryFile.toPath(), damaged);
+        
+        Inventory reloaded = new Inventory(inventoryFile);
+        assertEquals(10, reloaded.getItem("Chips").getQuantity());
+    }
+    
+    @Test
+    void testSnapshotWithoutFooterIsOnlyAcceptedFromOlderVersions() throws IOException {
+        // The footer-less file of an older version loads until it is first rewritten
+        assertEquals(10, new Inventory(inventoryFile).getItem("Chips").getQuantity());
+        
+        Inventory inventory = new Inventory(inventoryFile);
+        inventory.updateItemStock("Chips", 6);
+        inventory.saveInventory();
+        inventory.updateItemStock("Chips", 5);
+        inventory.saveInventory(); // Backup now holds the first snapshot (Chips: 6)
+        
+        String snapshot = Files.readString(inventoryFile.toPath());
+        Files.writeString(inventoryFile.toPath(), snapshot.substring(0, snapshot.indexOf(SnapshotFile.FOOTER_PREFIX)));
+        assertEquals(6, new Inventory(inventoryFile).getItem("Chips").getQuantity());
+    }
+    
+    @Test
+    void testConcurrentCheckoutsNeverOversell() throws Exception {
+        Inventory inventory = new Inventory(inventoryFile);
+        Item chips = inventory.getItem("Chips");
+        Item milk = inventory.getItem("Milk");
+        chips.setQuantity(100);
+        milk.setQuantity(150);
+        
+        int lanes = 16;
+        AtomicInteger chipsSold = new AtomicInteger();
+        AtomicInteger milkSold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(lanes);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int lane = 0; lane < lanes; lane++) {
+            int chipsPerCart = lane % 3 + 1;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    Cart cart = new Cart(false);
+                    // Both lanes pass the advisory stock check before either commits
+                    if (cart.addItem(chips, chipsPerCart) && cart.addItem(milk, 2) && cart.updateInventory(inventory)) {
+                        chipsSold.addAndGet(chipsPerCart);
+                        milkSold.addAndGet(2);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        
+        assertTrue(chipsSold.get() <= 100);
+        assertTrue(milkSold.get() <= 150);
+        assertEquals(100 - chipsSold.get(), chips.getQuantity());
+        assertEquals(150 - milkSold.get(), milk.getQuantity());
+        assertTrue(chips.getQuantity() >= 0 && milk.getQuantity() >= 0);
+    }
+    
+    @Test
+    void testSalesCommittedDuringSavesArePersisted() throws Exception {
+        int products = 2000;
+        StringBuilder snapshot = new StringBuilder();
+        for (int i = 0; i < products; i++) {
+            snapshot.append("Product ").append(i).append(": 1, $1.00, $1.00, Taxable\n");
+        }
+        Files.writeString(inventoryFile.toPath(), snapshot.toString());
+        System.setProperty(Inventory.COMPACT_EVERY_PROPERTY, "50");
+        Inventory inventory = new Inventory(inventoryFile);
+        
+        int lanes = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger lanesDone = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(lanes + 1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int lane = 0; lane < lanes; lane++) {
+            int first = lane;
+            futures.add(executor.submit(() -> {
+                start.await();
+                // Each product is sold once, so a sale dropped by a save is never written again
+                for (int i = first; i < products; i += lanes) {
+                    Cart cart = new Cart(false);
+                    assertTrue(cart.addItem(inventory.getItem("Product " + i), 1) && cart.updateInventory(inventory));
+                }
+                lanesDone.incrementAndGet();
+                return null;
+            }));
+        }
+        // Journal appends and snapshot compactions run while the lanes commit
+        futures.add(executor.submit(() -> {
+            start.await();
+            while (lanesDone.get() < lanes) {
+                inventory.saveStockChanges();
+            }
+            return null;
+        }));
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        inventory.saveStockChanges();
+        
+        Inventory reloaded = new Inventory(inventoryFile);
+        for (int i = 0; i < products; i++) {
+            assertEquals(0, reloaded.getItem("Product " + i).getQuantity(), "Product " + i);
+        }
+    }
+    
+    @Test
+    void testCommitSaleIsAllOrNothing() {
+        Inventory inventory = new Inventory(inventoryFile);
+        Cart cart = new Cart(false);
+        cart.addItem(inventory.getItem("Chips"), 5);
+        cart.addItem(inventory.getItem("Milk"), 5);
+        inventory.getItem("Milk").setQuantity(3); // Another lane sold most of the milk
+        
+        assertFalse(cart.updateInventory(inventory));
+        assertEquals(10, inventory.getItem("Chips").getQuantity());
+        assertEquals(3, inventory.getItem("Milk").getQuantity());
+    }
+}
@@ -0,0 +1,152 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.quickmart.app.LoadDriver.LatencyStats;
+import com.quickmart.app.LoadDriver.Operation;
+
+/**
+ * Unit tests for LoadScript, LoadDriver runs and the latency statistics
+ */
+public class LoadDriverTest {
+    
+    @TempDir
+    static Path dataDir;
+    
+    @BeforeAll
+    static void useTempDataDir() {
+        // The driver checks out through TransactionManager, which keeps its counter and receipts here
+        System.setProperty(DataFiles.DATA_DIR_PROPERTY, dataDir.toString());
+    }
+    
+    @AfterAll
+    static void clearDataDir() {
+        System.clearProperty(DataFiles.DATA_DIR_PROPERTY);
+    }
+    
+    private Inventory loadInventory(String content) throws IOException {
+        File inventoryFile = dataDir.resolve("inventory.txt").toFile();
+        Files.writeString(inventoryFile.toPath(), content);
+        return new Inventory(inventoryFile);
+    }
+    
+    @Test
+    void testParseScript() {
+        List<LoadScript.Session> sessions = LoadScript.parse(List.of(
+            "# two customers",
+            "member",
+            "add Red Bull 3",
+            "ADD Milk 1",
+            "remove Red Bull 0",
+            "checkout 20.00",
+            "",
+            "regular",
+            "add Flour 2",
+            "cancel"));
+        assertEquals(2, sessions.size());
+        
+        LoadScript.Session first = sessions.get(0);
+        assertTrue(first.isMember());
+        assertEquals(4, first.getSteps().size());
+        LoadScript.Step add = first.getSteps().get(0);
+        assertEquals(Operation.ADD, add.getOperation());
+        assertEquals("Red Bull", add.getItemName());
+        assertEquals(3, add.getQuantity());
+        assertEquals(Operation.REMOVE, first.getSteps().get(2).getOperation());
+        assertEquals(0, first.getSteps().get(2).getQuantity());
+        assertEquals(new BigDecimal("20.00"), first.getSteps().get(3).getCash());
+        
+        LoadScript.Session second = sessions.get(1);
+        assertFalse(second.isMember());
+        assertEquals(Operation.CANCEL, second.getSteps().get(1).getOperation());
+    }
+    
+    @Test
+    void testRunScript() throws Exception {
+        Inventory inventory = loadInventory("Milk: 20, $3.75, $3.50, Tax-Exempt\nBread: 10, $2.00, $1.80, Tax-Exempt\n");
+        List<LoadScript.Session> script = LoadScript.parse(List.of(
+            "member", "add Milk 3", "remove Milk 0", "add Bread 2", "checkout"));
+        LoadDriver driver = new LoadDriver(inventory, script, 2, 4, 0, 1, 0, 0, 1);
+        LatencyStats stats = driver.run();
+        
+        assertEquals(4, stats.count(Operation.SESSION));
+        assertEquals(4, stats.count(Operation.REMOVE));
+        assertEquals(4, stats.count(Operation.CHECKOUT));
+        // Removing quantity 0 took the milk out of every cart before checkout
+        assertEquals(20, inventory.getItem("Milk").getQuantity());
+        assertEquals(2, inventory.getItem("Bread").getQuantity());
+        assertTrue(driver.report(stats).contains("Transactions: 4 "));
+    }
+    
+    @Test
+    void testRandomRemovesEmptyTheCart() throws Exception {
+        Inventory inventory = loadInventory("Milk: 20, $3.75, $3.50, Tax-Exempt\n");
+        // One line per customer and a remove for every customer: nothing is left to check out
+        LoadDriver driver = new LoadDriver(inventory, null, 2, 10, 0, 1, 0.5, 1, 7);
+        LatencyStats stats = driver.run();
+        
+        assertEquals(10, stats.count(Operation.ADD));
+        assertEquals(10, stats.count(Operation.REMOVE));
+        // Every checkout found an empty cart and counts as failed
+        assertEquals(10, stats.count(Operation.CHECKOUT));
+        assertTrue(driver.report(stats).contains("Transactions: 0 "));
+        assertTrue(driver.report(stats).contains("failed checkouts: 10,"));
+        assertEquals(20, inventory.getItem("Milk").getAvailableQuantity());
+    }
+    
+    @Test
+    void testUnfinishedSessionReleasesItsHolds() throws Exception {
+        Inventory inventory = loadInventory("Milk: 20, $3.75, $3.50, Tax-Exempt\n");
+        LoadScript.Session session = new LoadScript.Session(false);
+        session.add(new LoadScript.Step(Operation.ADD, "Milk", 5, null));
+        LoadDriver driver = new LoadDriver(inventory, List.of(session), 1, 2, 0, 1, 0, 0, 1);
+        driver.run();
+        
+        assertEquals(20, inventory.getItem("Milk").getAvailableQuantity());
+        assertEquals(0, inventory.getReservations().getActiveHoldCount());
+    }
+    
+    @Test
+    void testInvalidScripts() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> LoadScript.parse(List.of("member", "add Milk two", "checkout")));
+        assertTrue(e.getMessage().startsWith("Script line 2"));
+        assertThrows(IllegalArgumentException.class, () -> LoadScript.parse(List.of("add Milk 1", "checkout")));
+        assertThrows(IllegalArgumentException.class, () -> LoadScript.parse(List.of("member", "add Milk 1")));
+        assertThrows(IllegalArgumentException.class, () -> LoadScript.parse(List.of("member", "pay", "checkout")));
+        assertThrows(IllegalArgumentException.class, () -> LoadScript.parse(List.of("# nothing")));
+    }
+    
+    @Test
+    void testPercentiles() {
+        LatencyStats first = new LatencyStats();
+        LatencyStats second = new LatencyStats();
+        for (int i = 1; i <= 500; i++) {
+            first.record(Operation.CHECKOUT, i);
+            second.record(Operation.CHECKOUT, 1000 - i + 1);
+        }
+        LatencyStats total = new LatencyStats();
+        total.addAll(first);
+        total.addAll(second);
+        
+        assertEquals(1000, total.count(Operation.CHECKOUT));
+        assertEquals(0, total.count(Operation.ADD));
+        assertEquals(1, total.percentile(Operation.CHECKOUT, 0));
+        assertEquals(500, total.percentile(Operation.CHECKOUT, 50));
+        assertEquals(990, total.percentile(Operation.CHECKOUT, 99));
+        assertEquals(999, total.percentile(Operation.CHECKOUT, 99.9));
+        assertEquals(1000, total.percentile(Operation.CHECKOUT, 100));
+        assertEquals(0, total.percentile(Operation.ADD, 50));
+    }
+}
@@ -0,0 +1,58 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for LongIntHashIndex class
+ */
+public class LongIntHashIndexTest {
+    
+    @Test
+    void testPutAndGet() {
+        LongIntHashIndex index = new LongIntHashIndex();
+        assertEquals(LongIntHashIndex.MISSING, index.put(12345678905L, 1));
+        assertEquals(LongIntHashIndex.MISSING, index.put(4006381333931L, 2));
+        assertEquals(1, index.get(12345678905L));
+        assertEquals(2, index.get(4006381333931L));
+        assertEquals(LongIntHashIndex.MISSING, index.get(96385074L));
+        assertEquals(LongIntHashIndex.MISSING, index.get(0));
+        
+        assertEquals(1, index.put(12345678905L, 7));
+        assertEquals(7, index.get(12345678905L));
+        assertEquals(2, index.size());
+        assertThrows(IllegalArgumentException.class, () -> index.put(0, 1));
+    }
+    
+    @Test
+    void testGrowsAndMatchesHashMap() {
+        LongIntHashIndex index = new LongIntHashIndex(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            // Sequential codes and random ones
+            long key = i % 2 == 0 ? 10000000000L + i : 1 + (random.nextLong() & 0x3fffffffffffL);
+            index.put(key, i);
+            expected.put(key, i);
+        }
+        assertEquals(expected.size(), index.size());
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().intValue(), index.get(entry.getKey()));
+        }
+    }
+    
+    @Test
+    void testCopyIsIndependent() {
+        LongIntHashIndex index = new LongIntHashIndex();
+        index.put(42, 1);
+        LongIntHashIndex copy = index.copy();
+        copy.put(43, 2);
+        assertEquals(1, copy.get(42));
+        assertEquals(2, copy.get(43));
+        assertFalse(index.containsKey(43));
+    }
+}
@@ -0,0 +1,147 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for MappedInventoryStore class and the mapped Inventory backend
+ */
+public class MappedInventoryStoreTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private File inventoryFile;
+    private String originalSnapshot;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        inventoryFile = tempDir.resolve("inventory.txt").toFile();
+        originalSnapshot = "Chips: 10, $1,99, $1,79, Taxable\nMilk: 20, $3.75, $3.50, Tax-Exempt, 012345678905\n";
+        Files.writeString(inventoryFile.toPath(), originalSnapshot);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(Inventory.STORE_PROPERTY);
+    }
+    
+    @Test
+    void testCreateAndOpen() throws IOException {
+        List<Item> items = List.of(
+            new Item("Café", 3, new BigDecimal("2.10"), new BigDecimal("2.00"), true),
+            new Item("Milk", 20, new BigDecimal("3.75"), new BigDecimal("3.50"), false, 12345678905L));
+        File file = tempDir.resolve("store.dat").toFile();
+        MappedInventoryStore.create(file, items);
+        try (MappedInventoryStore store = MappedInventoryStore.open(file)) {
+            assertEquals(2, store.size());
+            for (int id = 1; id <= 2; id++) {
+                assertEquals(items.get(id - 1).toString(), store.item(id).toString());
+            }
+            assertEquals(new BigDecimal("3.50"), store.item(2).getMemberPrice());
+            assertThrows(IndexOutOfBoundsException.class, () -> store.item(3));
+        }
+        
+        assertThrows(IOException.class, () -> MappedInventoryStore.open(inventoryFile));
+        String longName = "x".repeat(MappedInventoryStore.MAX_NAME_BYTES + 1);
+        File other = tempDir.resolve("other.dat").toFile();
+        assertThrows(IOException.class, () -> MappedInventoryStore.create(other,
+            List.of(new Item(longName, 1, new BigDecimal("1"), new BigDecimal("1"), true))));
+    }
+    
+    @Test
+    void testStockIsSharedBetweenMappings() throws Exception {
+        File file = tempDir.resolve("store.dat").toFile();
+        MappedInventoryStore.create(file, List.of(new Item("Chips", 1000, 199, 179, true)));
+        // Two mappings of one file, like two processes
+        try (MappedInventoryStore first = MappedInventoryStore.open(file);
+                MappedInventoryStore second = MappedInventoryStore.open(file)) {
+            Item mine = first.item(1);
+            Item theirs = second.item(1);
+            assertTrue(mine.tryReduceStock(10));
+            assertEquals(990, theirs.getQuantity());
+            theirs.setQuantity(800);
+            assertEquals(800, mine.getQuantity());
+            
+            AtomicInteger sold = new AtomicInteger();
+            Thread[] lanes = new Thread[8];
+            for (int lane = 0; lane < lanes.length; lane++) {
+                Item item = lane % 2 == 0 ? mine : theirs;
+                lanes[lane] = new Thread(() -> {
+                    for (int i = 0; i < 150; i++) {
+                        if (item.tryReduceStock(1)) {
+                            sold.incrementAndGet();
+                        }
+                    }
+                });
+                lanes[lane].start();
+            }
+            for (Thread lane : lanes) {
+                lane.join();
+            }
+            assertEquals(800, sold.get());
+            assertEquals(0, theirs.getQuantity());
+        }
+    }
+    
+    @Test
+    void testInventoryOnMappedStore() throws IOException {
+        System.setProperty(Inventory.STORE_PROPERTY, "mapped");
+        Inventory inventory = new Inventory(inventoryFile);
+        assertTrue(tempDir.resolve("inventory.txt.dat").toFile().exists());
+        assertEquals(2, inventory.getAllItems().size());
+        assertEquals("Milk", inventory.getItemByBarcode(12345678905L).getName());
+        
+        Cart cart = new Cart(false);
+        cart.addItem(inventory.getItem("Chips"), 4);
+        assertTrue(cart.updateInventory(inventory));
+        inventory.saveStockChanges();
+        
+        // Another process sees the sale without any save, and the text file is not rewritten
+        Inventory other = new Inventory(inventoryFile);
+        assertEquals(6, other.getItem("Chips").getQuantity());
+        inventory.compact();
+        assertEquals(originalSnapshot, Files.readString(inventoryFile.toPath()));
+        assertFalse(tempDir.resolve("inventory.txt.journal").toFile().exists());
+        
+        // Products appended by one process keep their IDs in the other
+        assertTrue(other.addItem(new Item("Bread", 5, new BigDecimal("2.00"), new BigDecimal("1.80"), false)));
+        assertTrue(inventory.addItem(new Item("Eggs", 12, new BigDecimal("3.00"), new BigDecimal("2.80"), false)));
+        assertFalse(inventory.addItem(new Item("Bread", 1, new BigDecimal("2.00"), new BigDecimal("1.80"), false)));
+        assertEquals("Bread", inventory.getItemById(3).getName());
+        assertEquals("Eggs", inventory.getItemById(4).getName());
+        assertEquals(1, inventory.searchItems("bread", 5).size());
+        
+        Inventory restarted = new Inventory(inventoryFile);
+        assertEquals(4, restarted.getAllItems().size());
+        assertEquals(12, restarted.getItem("Eggs").getQuantity());
+    }
+    
+    @Test
+    void testSaleFailsWhenAnotherProcessSoldTheStock() {
+        System.setProperty(Inventory.STORE_PROPERTY, "mapped");
+        Inventory inventory = new Inventory(inventoryFile);
+        Inventory other = new Inventory(inventoryFile);
+        
+        Cart cart = new Cart(false);
+        cart.addItem(inventory.getItem("Milk"), 1);
+        cart.addItem(inventory.getItem("Chips"), 5);
+        other.getItem("Chips").tryReduceStock(8);
+        
+        // Nothing is sold: the milk taken before the chips failed is put back
+        assertFalse(cart.updateInventory(inventory));
+        assertEquals(20, other.getItem("Milk").getQuantity());
+        assertEquals(2, other.getItem("Chips").getQuantity());
+    }
+}
@@ -0,0 +1,36 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Unit tests for Money class
+ */
+public class MoneyTest {
+    
+    @Test
+    void testToCents() {
+        assertEquals(599, Money.toCents(new BigDecimal("5.99")));
+        assertEquals(350, Money.toCents(new BigDecimal("3.5")));
+        assertEquals(1, Money.toCents(new BigDecimal("0.005"))); // Half-up
+        assertEquals(0, Money.toCents(new BigDecimal("0.0049")));
+    }
+    
+    @Test
+    void testToBigDecimal() {
+        assertEquals(new BigDecimal("5.99"), Money.toBigDecimal(599));
+        assertEquals(new BigDecimal("0.00"), Money.toBigDecimal(0));
+    }
+    
+    @Test
+    void testTaxRoundsHalfUp() {
+        assertEquals(78, Money.taxCents(1198)); // $11.98 * 6.5% = $0.7787
+        assertEquals(71, Money.taxCents(1098)); // $10.98 * 6.5% = $0.7137
+        assertEquals(13, Money.taxCents(200)); // $2.00 * 6.5% = $0.13
+        assertEquals(1, Money.taxCents(10)); // $0.10 * 6.5% = $0.0065
+        assertEquals(0, Money.taxCents(7)); // $0.07 * 6.5% = $0.00455
+        assertEquals(-78, Money.taxCents(-1198));
+    }
+}
@@ -0,0 +1,57 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for ParallelInventoryLoader class
+ */
+public class ParallelInventoryLoaderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testMatchesStreamingParser() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            if (i % 250 == 0) {
+                content.append("Broken line ").append(i).append("\n");
+            }
+            content.append("Product ").append(i).append(": ").append(i % 50)
+                .append(", $1,").append(i % 90 + 10).append(", $0.99, ")
+                .append(i % 3 == 0 ? "Taxable" : "Tax-Exempt").append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+        File file = tempDir.resolve("inventory.txt").toFile();
+        Files.writeString(file.toPath(), content, StandardCharsets.UTF_8);
+        
+        List<Item> expectedItems = new ArrayList<>();
+        List<String> expectedErrors = new ArrayList<>();
+        InventoryParser.parse(new StringReader(content.toString()), expectedItems::add, expectedErrors::add);
+        
+        List<Item> items = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int count = ParallelInventoryLoader.load(file, 1024, items::add, errors::add); // Many small chunks
+        
+        assertEquals(2000, count);
+        assertEquals(expectedErrors, errors);
+        for (int i = 0; i < expectedItems.size(); i++) {
+            assertEquals(expectedItems.get(i).toString(), items.get(i).toString());
+        }
+    }
+    
+    @Test
+    void testEmptyFile() throws IOException {
+        File file = tempDir.resolve("empty.txt").toFile();
+        Files.writeString(file.toPath(), "");
+        assertEquals(0, ParallelInventoryLoader.load(file, 1024, item -> fail(), error -> fail()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for ProductSearchIndex class
+ */
+public class ProductSearchIndexTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private ProductSearchIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.add(1, "Milk");
+        index.add(2, "Red Bull");
+        index.add(3, "Flour");
+        index.add(4, "Chocolate  Milk");
+        index.add(5, "Bulgur Wheat");
+    }
+    
+    @Test
+    void testPrefixSearch() {
+        assertArrayEquals(new int[] { 1, 4 }, index.findByPrefix("mil", 10));
+        assertArrayEquals(new int[] { 1, 4 }, index.findByPrefix("MILK", 10));
+        // Matches at the start of the name rank before later words
+        assertArrayEquals(new int[] { 5, 2 }, index.findByPrefix("bul", 10));
+        assertArrayEquals(new int[] { 2 }, index.findByPrefix("red  bu", 10));
+        assertArrayEquals(new int[] { 3 }, index.findByPrefix("f", 10));
+        assertArrayEquals(new int[] { 1 }, index.findByPrefix("mil", 1));
+        assertEquals(0, index.findByPrefix("milky", 10).length);
+        assertEquals(0, index.findByPrefix("ilk", 10).length);
+        assertEquals(0, index.findByPrefix("  ", 10).length);
+    }
+    
+    @Test
+    void testTypoTolerantSearch() {
+        assertArrayEquals(new int[] { 1, 4 }, index.search("mlik", 10));
+        assertArrayEquals(new int[] { 3 }, index.search("flor", 10));
+        assertArrayEquals(new int[] { 3 }, index.search("folur", 10));
+        assertArrayEquals(new int[] { 2 }, index.search("red vull", 10));
+        assertArrayEquals(new int[] { 4 }, index.search("chocolte mi", 10));
+        // A typo in the first letter of a short word shares no trigram with it
+        assertArrayEquals(new int[] { 2 }, index.search("xed", 10));
+        assertArrayEquals(new int[] { 1, 4 }, index.search("nilk", 10));
+        // Exact matches come before matches with typos
+        index.add(6, "Mild Salsa");
+        assertArrayEquals(new int[] { 6, 1, 4 }, index.search("mild", 10));
+        assertEquals(0, index.search("xyz", 10).length);
+        // Short queries allow no typos
+        assertEquals(0, index.search("ml", 10).length);
+    }
+    
+    @Test
+    void testPrefixDistance() {
+        assertEquals(0, ProductSearchIndex.prefixDistance("red", "red bull", 0, 2));
+        assertEquals(1, ProductSearchIndex.prefixDistance("bulk", "red bull", 4, 2));
+        assertEquals(1, ProductSearchIndex.prefixDistance("ubll", "red bull", 4, 2));
+        assertEquals(3, ProductSearchIndex.prefixDistance("xxxx", "red bull", 4, 2));
+    }
+    
+    @Test
+    void testLargeCatalog() {
+        ProductSearchIndex large = new ProductSearchIndex();
+        for (int id = 1; id <= 50_000; id++) {
+            large.add(id, "Product " + id + " Size " + (id % 7));
+        }
+        large.add(50_001, "Sparkling Water");
+        assertArrayEquals(new int[] { 50_001 }, large.search("sparklng", 10));
+        assertArrayEquals(new int[] { 12_345 }, large.findByPrefix("product 12345 ", 10));
+        assertEquals(10, large.search("prodcut 1", 10).length);
+    }
+    
+    @Test
+    void testInventorySearch() throws IOException {
+        File inventoryFile = tempDir.resolve("inventory.txt").toFile();
+        Files.writeString(inventoryFile.toPath(), "Milk: 5, $3.75, $3.50, Tax-Exempt\nRed Bull: 10, $4.30, $4.00, Taxable\n");
+        Inventory inventory = new Inventory(inventoryFile);
+        assertEquals(List.of("Red Bull"), names(inventory.searchItems("bull", 10)));
+        
+        inventory.addItem(new Item("Bulgur", 3, 250, 225, false));
+        assertEquals(List.of("Bulgur", "Red Bull"), names(inventory.searchItems("bul", 10)));
+    }
+    
+    private static List<String> names(List<Item> items) {
+        return items.stream().map(Item::getName).collect(Collectors.toList());
+    }
+}
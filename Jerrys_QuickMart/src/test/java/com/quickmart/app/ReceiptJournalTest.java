@@ -0,0 +1,73 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for ReceiptJournal class
+ */
+public class ReceiptJournalTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testLookupByNumber() throws IOException {
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir.toFile(), ReceiptJournal.DEFAULT_SEGMENT_BYTES)) {
+            Receipt first = ReceiptWriterTest.receipt(1);
+            Receipt third = ReceiptWriterTest.receipt(3);
+            journal.append(first, first.generateReceiptContent());
+            journal.append(third, "Café receipt\n");
+            journal.sync();
+            
+            assertEquals(first.generateReceiptContent(), journal.read(1));
+            assertEquals("Café receipt\n", journal.read(3));
+            assertNull(journal.read(2));
+            assertNull(journal.read(4));
+            assertNull(journal.read(1000));
+            assertEquals(3, journal.getLastTransactionNumber());
+        }
+    }
+    
+    @Test
+    void testSegmentsRollOverAndSurviveReopen() throws IOException {
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir.toFile(), 200)) {
+            for (int i = 1; i <= 20; i++) {
+                journal.append(ReceiptWriterTest.receipt(i), "Receipt number " + i + "\n".repeat(20));
+            }
+        }
+        File[] segments = tempDir.toFile().listFiles((dir, name) -> name.startsWith("segment_"));
+        assertTrue(segments.length > 1);
+        
+        try (ReceiptJournal reopened = new ReceiptJournal(tempDir.toFile(), 200)) {
+            assertEquals(20, reopened.getLastTransactionNumber());
+            for (int i = 1; i <= 20; i++) {
+                assertEquals("Receipt number " + i + "\n".repeat(20), reopened.read(i));
+            }
+            reopened.append(ReceiptWriterTest.receipt(21), "After reopen\n");
+            assertEquals("After reopen\n", reopened.read(21));
+        }
+    }
+    
+    @Test
+    void testCorruptedRecordIsReported() throws IOException {
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir.toFile(), ReceiptJournal.DEFAULT_SEGMENT_BYTES)) {
+            journal.append(ReceiptWriterTest.receipt(1), "Original\n");
+        }
+        File segment = tempDir.toFile().listFiles((dir, name) -> name.startsWith("segment_"))[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(file.length() - 2);
+            file.write('X');
+        }
+        
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir.toFile(), ReceiptJournal.DEFAULT_SEGMENT_BYTES)) {
+            assertThrows(IOException.class, () -> journal.read(1));
+        }
+    }
+}
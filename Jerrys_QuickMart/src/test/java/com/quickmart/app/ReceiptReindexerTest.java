@@ -0,0 +1,84 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Unit tests for ReceiptReindexer and ReceiptIndex classes
+ */
+public class ReceiptReindexerTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private final Item redBull = new Item("Red Bull", 1000, new BigDecimal("4.30"), new BigDecimal("4.00"), true);
+    private final Item milk = new Item("Milk", 1000, new BigDecimal("3.75"), new BigDecimal("3.50"), false);
+    
+    @Test
+    void testReindexInParallel() throws IOException {
+        Path older = Files.createDirectories(tempDir.resolve("2015"));
+        ReceiptFiles current = new ReceiptFiles(tempDir.toFile());
+        for (int number = 1; number <= 150; number++) {
+            Cart cart = new Cart(number % 2 == 0);
+            cart.addItem(number % 3 == 0 ? milk : redBull, 1 + number % 4);
+            Receipt receipt = new Receipt(number, cart, new BigDecimal("100"));
+            current.append(receipt, receipt.generateReceiptContent());
+        }
+        Files.writeString(older.resolve("transaction_000999_20151231.txt"), "garbage");
+        Files.writeString(older.resolve("notes.txt"), "not a receipt file");
+        
+        ReceiptReindexer.Result result = ReceiptReindexer.reindex(tempDir, 4);
+        assertEquals(151, result.getFileCount());
+        assertEquals(150, result.getIndex().size());
+        assertEquals(1, result.getMalformed().size());
+        assertTrue(result.getMalformed().get(0).endsWith("transaction_000999_20151231.txt"));
+        assertTrue(result.getBytes() > 0);
+        assertTrue(result.summary().contains("150 of 151"));
+        
+        ReceiptIndex index = result.getIndex();
+        LocalDate today = LocalDate.now();
+        List<ReceiptIndex.Entry> third = index.findByTransaction(3);
+        assertEquals(1, third.size());
+        assertEquals(List.of("Milk"), third.get(0).getItemNames());
+        // Regular customer: 4 x $3.75, tax exempt
+        assertEquals(1500, third.get(0).getTotalCents());
+        assertEquals(50, index.findByItem("milk").size());
+        assertEquals(100, index.findByItem("Red Bull").size());
+        assertEquals(150, index.findByDate(today).size());
+        assertEquals(150, index.findByDate(today.minusDays(1), today).size());
+        assertTrue(index.findByDate(LocalDate.of(2015, 12, 31)).isEmpty());
+        assertTrue(index.findByTransaction(999).isEmpty());
+    }
+    
+    @Test
+    void testSaveAndLoadIndex() throws IOException {
+        ReceiptIndex index = new ReceiptIndex();
+        index.add(new ReceiptIndex.Entry(7, LocalDate.of(2016, 12, 8), "a/transaction_000007_20161208.txt", 1852,
+            List.of("Milk", "Red Bull", "Flour")));
+        index.add(new ReceiptIndex.Entry(7, LocalDate.of(2017, 1, 2), "b/transaction_000007_20170102.txt", 375,
+            List.of("Milk")));
+        File file = tempDir.resolve(ReceiptIndex.FILE_NAME).toFile();
+        index.save(file);
+        
+        ReceiptIndex loaded = ReceiptIndex.load(file);
+        assertEquals(2, loaded.size());
+        assertEquals(2, loaded.findByTransaction(7).size());
+        assertEquals(2, loaded.findByItem("MILK").size());
+        ReceiptIndex.Entry first = loaded.findByItem("flour").get(0);
+        assertEquals(LocalDate.of(2016, 12, 8), first.getDate());
+        assertEquals(1852, first.getTotalCents());
+        assertEquals("a/transaction_000007_20161208.txt", first.getPath());
+        assertEquals(1, loaded.findByDate(LocalDate.of(2016, 12, 1), LocalDate.of(2016, 12, 31)).size());
+        
+        assertEquals(0, ReceiptIndex.load(tempDir.resolve("missing.txt").toFile()).size());
+    }
+}
@@ -0,0 +1,101 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Unit tests for ReceiptRenderer class, checked against the original String.format layout
+ */
+public class ReceiptRendererTest {
+    
+    private static final String[] LOCALES = {"es-ES", "en-US", "de-DE", "fr-FR", "ar-EG", "th-TH-u-nu-thai", "hi-IN"};
+    
+    private final Locale originalLocale = Locale.getDefault(Locale.Category.FORMAT);
+    
+    @AfterEach
+    void tearDown() {
+        Locale.setDefault(Locale.Category.FORMAT, originalLocale);
+    }
+    
+    @Test
+    void testOutputMatchesStringFormat() {
+        for (String tag : LOCALES) {
+            Locale.setDefault(Locale.Category.FORMAT, Locale.forLanguageTag(tag));
+            for (Receipt receipt : sampleReceipts()) {
+                assertEquals(legacyContent(receipt), receipt.generateReceiptContent(), "Locale " + tag);
+                assertEquals(legacyFileName(receipt), receipt.getFileName(), "Locale " + tag);
+            }
+        }
+    }
+    
+    @Test
+    void testRendererIsReusable() {
+        Receipt small = sampleReceipts().get(0);
+        Receipt large = sampleReceipts().get(1);
+        String first = small.generateReceiptContent();
+        large.generateReceiptContent();
+        assertEquals(first, small.generateReceiptContent());
+    }
+    
+    private List<Receipt> sampleReceipts() {
+        List<Receipt> receipts = new ArrayList<>();
+        
+        Cart member = new Cart(true);
+        member.addItem(new Item("Milk", 50, new BigDecimal("3.75"), new BigDecimal("3.50"), false), 2);
+        member.addItem(new Item("Red Bull", 50, new BigDecimal("4.30"), new BigDecimal("4.00"), true), 3);
+        member.addItem(new Item("Extra long product name", 5000, new BigDecimal("1.005"), new BigDecimal("0.995"), true), 1234);
+        receipts.add(new Receipt(1, member, new BigDecimal("2000")));
+        
+        Cart regular = new Cart(false);
+        regular.addItem(new Item("Flour", 10, new BigDecimal("3.10"), new BigDecimal("2.75"), false), 1);
+        regular.addItem(new Item("Caviar", 10, new BigDecimal("123456.78"), new BigDecimal("120000"), true), 9);
+        receipts.add(new Receipt(123456, regular, new BigDecimal("1200000.125")));
+        
+        Cart noSavings = new Cart(true);
+        noSavings.addItem(new Item("Bread", 10, new BigDecimal("2.00"), new BigDecimal("2.00"), false), 1);
+        receipts.add(new Receipt(9999999, noSavings, new BigDecimal("2.00")));
+        return receipts;
+    }
+    
+    // The original Receipt.generateReceiptContent, kept as the reference layout
+    private String legacyContent(Receipt receipt) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(receipt.getDateTime().format(DateTimeFormatter.ofPattern("MMMM d, yyyy"))).append("\n");
+        sb.append("TRANSACTION: ").append(String.format("%06d", receipt.getTransactionNumber())).append("\n\n");
+        sb.append(String.format("%-12s %-10s %-12s %-8s\n", "ITEM", "QUANTITY", "UNIT PRICE", "TOTAL"));
+        for (CartItem item : receipt.getItems()) {
+            sb.append(String.format("%-12s %-10d $%-11.2f $%-7.2f\n",
+                item.getItem().getName(),
+                item.getQuantity(),
+                item.getUnitPrice(),
+                item.getSubtotal()));
+        }
+        sb.append("\n");
+        sb.append("*".repeat(36)).append("\n");
+        sb.append(String.format("TOTAL NUMBER OF ITEMS SOLD: %d\n", receipt.getTotalItems()));
+        sb.append(String.format("SUB-TOTAL: $%.2f\n", receipt.getSubtotal()));
+        sb.append(String.format("TAX (6.5%%): $%.2f\n", receipt.getTax()));
+        sb.append(String.format("TOTAL: $%.2f\n", receipt.getTotal()));
+        sb.append(String.format("CASH: $%.2f\n", receipt.getCashPayment()));
+        sb.append(String.format("CHANGE: $%.2f\n", receipt.getChange()));
+        sb.append("\n");
+        sb.append("*".repeat(36)).append("\n");
+        if (receipt.isMember() && receipt.getMemberSavings().compareTo(BigDecimal.ZERO) > 0) {
+            sb.append(String.format("YOU SAVED: $%.2f!\n", receipt.getMemberSavings()));
+        }
+        return sb.toString();
+    }
+    
+    private String legacyFileName(Receipt receipt) {
+        return String.format("transaction_%06d_%s.txt",
+            receipt.getTransactionNumber(),
+            receipt.getDateTime().format(DateTimeFormatter.ofPattern("yyyyMMdd")));
+    }
+}
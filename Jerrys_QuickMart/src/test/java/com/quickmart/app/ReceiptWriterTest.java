@@ -0,0 +1,87 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for ReceiptWriter class
+ */
+public class ReceiptWriterTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testFlushWritesEverySubmittedReceipt() throws Exception {
+        ReceiptFiles store = new ReceiptFiles(tempDir.toFile());
+        ReceiptWriter writer = new ReceiptWriter(store, 8, 5, TimeUnit.MILLISECONDS);
+        // More receipts than the queue holds: submit waits for the writer instead of failing
+        for (int i = 1; i <= 50; i++) {
+            writer.submit(receipt(i), "Receipt " + i + "\n");
+        }
+        writer.flush();
+        
+        assertEquals(0, writer.getPendingCount());
+        for (int i = 1; i <= 50; i++) {
+            assertEquals("Receipt " + i + "\n", store.read(i));
+        }
+        writer.close();
+    }
+    
+    @Test
+    void testCloseDrainsQueue() throws IOException {
+        ReceiptFiles store = new ReceiptFiles(tempDir.toFile());
+        // A long max latency keeps the receipts queued until close()
+        ReceiptWriter writer = new ReceiptWriter(store, 64, 1, TimeUnit.HOURS);
+        for (int i = 1; i <= 10; i++) {
+            writer.submit(receipt(i), "Receipt " + i + "\n");
+        }
+        writer.close();
+        
+        assertEquals(0, writer.getPendingCount());
+        assertEquals(10, store.getLastTransactionNumber());
+        for (int i = 1; i <= 10; i++) {
+            assertNotNull(store.read(i));
+        }
+    }
+    
+    @Test
+    void testSubmitAfterCloseWritesSynchronously() throws IOException {
+        ReceiptFiles store = new ReceiptFiles(tempDir.toFile());
+        ReceiptWriter writer = new ReceiptWriter(store, 4, 5, TimeUnit.MILLISECONDS);
+        writer.close();
+        writer.submit(receipt(1), "Late\n");
+        
+        assertEquals("Late\n", store.read(1));
+        assertEquals(0, writer.getPendingCount());
+    }
+    
+    @Test
+    void testWriteErrorDoesNotStopWriter() throws Exception {
+        ReceiptFiles store = new ReceiptFiles(tempDir.toFile());
+        ReceiptFiles missing = new ReceiptFiles(tempDir.resolve("missing").toFile());
+        ReceiptWriter failing = new ReceiptWriter(missing, 4, 5, TimeUnit.MILLISECONDS);
+        failing.submit(receipt(1), "Lost\n");
+        failing.flush();
+        assertEquals(0, failing.getPendingCount());
+        failing.close();
+        
+        ReceiptWriter writer = new ReceiptWriter(store, 4, 5, TimeUnit.MILLISECONDS);
+        writer.submit(receipt(2), "Kept\n");
+        writer.flush();
+        assertEquals("Kept\n", store.read(2));
+        writer.close();
+    }
+    
+    static Receipt receipt(int transactionNumber) {
+        Cart cart = new Cart(false);
+        cart.addItem(new Item("Milk", 10, new BigDecimal("3.75"), new BigDecimal("3.50"), false), 1);
+        return new Receipt(transactionNumber, cart, new BigDecimal("5.00"));
+    }
+}
@@ -0,0 +1,166 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Unit tests for RegisterServer class
+ */
+public class RegisterServerTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private Inventory inventory;
+    private RegisterServer server;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        File inventoryFile = tempDir.resolve("inventory.txt").toFile();
+        Files.writeString(inventoryFile.toPath(), "Milk: 20, $3.75, $3.50, Tax-Exempt\n");
+        inventory = new Inventory(inventoryFile);
+        server = new RegisterServer(inventory, 0);
+        server.start();
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+    
+    @Test
+    void testLaneSession() throws IOException {
+        try (Client lane = new Client(server.getPort())) {
+            assertEquals("ERR Select the customer type first (CUSTOMER MEMBER|REGULAR).", lane.send("ADD 1 1").get(0));
+            assertEquals("OK Rewards Member customer selected.", last(lane.send("customer member")));
+            
+            List<String> listing = lane.send("INVENTORY");
+            assertEquals(" 1. " + inventory.getItem("Milk"), listing.get(0));
+            assertEquals("OK 1 of 1 items", last(listing));
+            assertEquals(List.of("OK 0 of 1 items"), lane.send("INVENTORY 2 10"));
+            
+            assertEquals("ERR Invalid product ID.", last(lane.send("ADD 2 1")));
+            assertEquals("ERR Invalid input. Please enter a number.", last(lane.send("ADD one 1")));
+            assertEquals("ERR Insufficient stock.", last(lane.send("ADD 1 21")));
+            assertEquals("OK Item added to cart.", last(lane.send("ADD 1 5")));
+            assertEquals(15, inventory.getItem("Milk").getAvailableQuantity());
+            
+            List<String> cart = lane.send("CART");
+            assertTrue(cart.get(0).startsWith(" 1. Milk x5"));
+            assertEquals("OK Item removed from cart.", last(lane.send("REMOVE 1 2")));
+            assertEquals(17, inventory.getItem("Milk").getAvailableQuantity());
+            
+            assertEquals("ERR Invalid input. Please enter a number.", last(lane.send("CHECKOUT")));
+            assertEquals("OK Item removed from cart.", last(lane.send("REMOVE 1 0")));
+            List<String> emptied = lane.send("CART");
+            assertEquals(1, emptied.size());
+            assertTrue(emptied.get(0).startsWith("OK Subtotal"));
+            assertEquals(20, inventory.getItem("Milk").getAvailableQuantity());
+            assertEquals("OK Transaction cancelled.", last(lane.send("CANCEL")));
+            assertEquals(20, inventory.getItem("Milk").getAvailableQuantity());
+            assertEquals("ERR Invalid option.", last(lane.send("DANCE")));
+            assertEquals("OK Goodbye.", last(lane.send("QUIT")));
+        }
+    }
+    
+    @Test
+    void testDisconnectReleasesHeldStock() throws Exception {
+        try (Client lane = new Client(server.getPort())) {
+            lane.send("CUSTOMER REGULAR");
+            lane.send("ADD 1 8");
+            assertEquals(12, inventory.getItem("Milk").getAvailableQuantity());
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (inventory.getItem("Milk").getAvailableQuantity() != 20 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(20, inventory.getItem("Milk").getAvailableQuantity());
+    }
+    
+    @Test
+    void testLanesShareInventory() throws Exception {
+        int lanes = 50;
+        ExecutorService clients = Executors.newFixedThreadPool(lanes);
+        CyclicBarrier barrier = new CyclicBarrier(lanes);
+        List<Future<String>> results = new ArrayList<>();
+        List<Client> connected = new ArrayList<>();
+        for (int i = 0; i < lanes; i++) {
+            Client lane = new Client(server.getPort());
+            connected.add(lane);
+            results.add(clients.submit(() -> {
+                lane.send("CUSTOMER REGULAR");
+                barrier.await();
+                return last(lane.send("ADD 1 1"));
+            }));
+        }
+        int added = 0;
+        for (Future<String> result : results) {
+            if (result.get(10, TimeUnit.SECONDS).equals("OK Item added to cart.")) {
+                added++;
+            }
+        }
+        assertEquals(20, added);
+        assertEquals(lanes, server.getLaneCount());
+        assertEquals(0, inventory.getItem("Milk").getAvailableQuantity());
+        for (Client lane : connected) {
+            lane.close();
+        }
+        clients.shutdown();
+    }
+    
+    private static String last(List<String> response) {
+        return response.get(response.size() - 1);
+    }
+    
+    /**
+     * Minimal lane client: sends a command and reads up to the OK/ERR line
+     */
+    private static class Client implements Closeable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+        
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            read();
+        }
+        
+        List<String> send(String command) throws IOException {
+            out.write(command + "\n");
+            out.flush();
+            return read();
+        }
+        
+        private List<String> read() throws IOException {
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                lines.add(line);
+                if (line.startsWith("OK") || line.startsWith("ERR")) {
+                    break;
+                }
+            }
+            return lines;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.quickmart.app.SalesAggregator.Metric;
+
+/**
+ * Unit tests for SalesAggregator and ReceiptTextParser classes
+ */
+public class SalesAggregatorTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private final Item redBull = new Item("Red Bull", 100, new BigDecimal("4.30"), new BigDecimal("4.00"), true);
+    private final Item milk = new Item("Milk", 100, new BigDecimal("3.75"), new BigDecimal("3.50"), false);
+    private final Map<String, Item> catalog = new HashMap<>();
+    
+    SalesAggregatorTest() {
+        catalog.put(redBull.getName(), redBull);
+        catalog.put(milk.getName(), milk);
+    }
+    
+    @Test
+    void testLiveRollups() {
+        SalesAggregator sales = new SalesAggregator();
+        Receipt first = receipt(1, true, 3, 2);
+        Receipt second = receipt(2, false, 1, 0);
+        assertTrue(sales.record(first));
+        assertTrue(sales.record(second));
+        assertFalse(sales.record(first));
+        
+        LocalDate today = first.getDateTime().toLocalDate();
+        int hour = first.getDateTime().getHour();
+        assertEquals(4, sales.get(Metric.UNITS, "Red Bull", today));
+        assertEquals(1200 + 430, sales.get(Metric.REVENUE_CENTS, "Red Bull", today));
+        assertEquals(78 + 28, sales.get(Metric.TAX_CENTS, "Red Bull", today));
+        assertEquals(90, sales.get(Metric.MEMBER_SAVINGS_CENTS, "Red Bull", today));
+        assertEquals(2, sales.get(Metric.UNITS, "Milk", today));
+        assertEquals(0, sales.get(Metric.TAX_CENTS, "Milk", today));
+        assertEquals(0, sales.get(Metric.UNITS, "Bread", today));
+        assertEquals(4, sales.get(Metric.UNITS, "Red Bull", today.minusDays(6), today));
+        assertEquals(0, sales.get(Metric.UNITS, "Red Bull", today.minusDays(7), today.minusDays(1)));
+        
+        assertEquals(6, sales.getHourly(Metric.UNITS, today, hour));
+        assertEquals(6, sales.getDayTotal(Metric.UNITS, today));
+        assertEquals(2, sales.getTransactionCount(today, hour));
+        assertEquals(2, sales.getTransactionCount(today));
+    }
+    
+    @Test
+    void testPersistAndReload() throws IOException {
+        File directory = tempDir.resolve("sales").toFile();
+        SalesAggregator sales = new SalesAggregator(directory);
+        Receipt first = receipt(1, true, 3, 2);
+        sales.record(first);
+        sales.save();
+        sales.record(receipt(2, false, 1, 0));
+        sales.save();
+        
+        SalesAggregator reloaded = new SalesAggregator(directory);
+        LocalDate today = first.getDateTime().toLocalDate();
+        assertEquals(4, reloaded.get(Metric.UNITS, "Red Bull", today));
+        assertEquals(2, reloaded.get(Metric.UNITS, "Milk", today));
+        assertEquals(2, reloaded.getTransactionCount(today));
+        assertTrue(reloaded.isCounted(2));
+        assertFalse(reloaded.record(first));
+        assertEquals("Red Bull\nMilk\n", Files.readString(directory.toPath().resolve("skus.txt")));
+    }
+    
+    @Test
+    void testOnlyChangedDaysAreRewritten() throws IOException {
+        File directory = tempDir.resolve("sales").toFile();
+        SalesAggregator sales = new SalesAggregator(directory);
+        sales.record(receipt(1, false, 1, 0));
+        sales.save();
+        File[] dayFiles = directory.listFiles((dir, name) -> name.startsWith("day_"));
+        assertEquals(1, dayFiles.length);
+        
+        // Nothing changed, so the deleted day file is not written again
+        assertTrue(dayFiles[0].delete());
+        sales.save();
+        assertFalse(dayFiles[0].exists());
+    }
+    
+    @Test
+    void testDamagedDayFileIsSkipped() throws IOException {
+        File directory = tempDir.resolve("sales").toFile();
+        SalesAggregator sales = new SalesAggregator(directory);
+        sales.record(receipt(1, false, 1, 0));
+        sales.save();
+        File dayFile = directory.listFiles((dir, name) -> name.startsWith("day_"))[0];
+        byte[] bytes = Files.readAllBytes(dayFile.toPath());
+        bytes[20] ^= 1;
+        Files.write(dayFile.toPath(), bytes);
+        
+        SalesAggregator reloaded = new SalesAggregator(directory);
+        assertFalse(reloaded.isCounted(1));
+        assertTrue(reloaded.record(receipt(1, false, 1, 0)));
+    }
+    
+    @Test
+    void testBackfillReceiptFilesAndRecords() throws IOException {
+        Receipt member = receipt(7, true, 2, 1);
+        Receipt regular = receipt(8, false, 0, 4);
+        ReceiptFiles files = new ReceiptFiles(tempDir.toFile());
+        files.append(member, member.generateReceiptContent());
+        TransactionRecordLog records = new TransactionRecordLog(tempDir.toFile());
+        records.append(member);
+        records.append(regular);
+        records.close();
+        
+        SalesAggregator sales = new SalesAggregator();
+        assertTrue(sales.backfillReceiptFile(tempDir.resolve(member.getFileName()).toFile(), catalog::get));
+        // The text receipt already counted transaction 7
+        LocalDate today = member.getDateTime().toLocalDate();
+        assertEquals(1, sales.backfillRecords(records.fileFor(today), catalog::get));
+        
+        SalesAggregator live = new SalesAggregator();
+        live.record(member);
+        live.record(regular);
+        for (Metric metric : Metric.values()) {
+            for (String name : catalog.keySet()) {
+                assertEquals(live.get(metric, name, today), sales.get(metric, name, today), metric + " " + name);
+            }
+        }
+    }
+    
+    @Test
+    void testParseReceiptText() {
+        Cart cart = new Cart(true);
+        cart.addItem(new Item("Extra long product name", 100, new BigDecimal("1.00"), new BigDecimal("0.75"), true), 12);
+        cart.addItem(redBull, 1);
+        Receipt receipt = new Receipt(31, cart, new BigDecimal("100"));
+        
+        ReceiptTextParser.ParsedReceipt parsed = ReceiptTextParser.parse(receipt.generateReceiptContent());
+        assertNotNull(parsed);
+        assertEquals(31, parsed.getTransactionNumber());
+        assertEquals(2, parsed.getLineCount());
+        assertEquals("Extra long product name", parsed.getName(0));
+        assertEquals(12, parsed.getQuantity(0));
+        assertEquals(75, parsed.getUnitPriceCents(0));
+        assertEquals(900, parsed.getLineTotalCents(0));
+        assertEquals(1300, parsed.getSubtotalCents());
+        assertEquals(85, parsed.getTaxCents());
+        assertEquals(330, parsed.getMemberSavingsCents());
+        assertTrue(parsed.isMember());
+        
+        assertNull(ReceiptTextParser.parse("Not a receipt"));
+    }
+    
+    private Receipt receipt(int number, boolean member, int redBulls, int milks) {
+        Cart cart = new Cart(member);
+        if (redBulls > 0) {
+            cart.addItem(redBull, redBulls);
+        }
+        if (milks > 0) {
+            cart.addItem(milk, milks);
+        }
+        return new Receipt(number, cart, new BigDecimal("100"));
+    }
+}
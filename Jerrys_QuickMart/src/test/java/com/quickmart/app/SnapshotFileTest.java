@@ -0,0 +1,64 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for SnapshotFile class
+ */
+public class SnapshotFileTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testWriteAndReadVerified() throws IOException {
+        File file = tempDir.resolve("counter.txt").toFile();
+        SnapshotFile.write(file, "42\n");
+        
+        assertEquals("42\n", SnapshotFile.readVerified(file));
+        assertTrue(SnapshotFile.verify(file));
+        assertTrue(Files.readString(file.toPath()).startsWith("42\n#CRC32:"));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+    
+    @Test
+    void testPreviousSnapshotIsKeptAsBackup() throws IOException {
+        File file = tempDir.resolve("counter.txt").toFile();
+        SnapshotFile.write(file, "1\n");
+        SnapshotFile.write(file, "2\n");
+        
+        assertEquals("2\n", SnapshotFile.readVerified(file));
+        assertEquals("1\n", SnapshotFile.readVerified(SnapshotFile.backupOf(file)));
+    }
+    
+    @Test
+    void testCorruptionIsDetected() throws IOException {
+        File file = tempDir.resolve("inventory.txt").toFile();
+        SnapshotFile.write(file, "Chips: 10, $1,99, $1,79, Taxable\n");
+        String damaged = Files.readString(file.toPath()).replace("10", "99");
+        Files.writeString(file.toPath(), damaged);
+        
+        assertFalse(SnapshotFile.verify(file));
+        assertThrows(IOException.class, () -> SnapshotFile.readVerified(file));
+    }
+    
+    @Test
+    void testFileWithoutFooterFailsVerification() throws IOException {
+        File file = tempDir.resolve("counter.txt").toFile();
+        SnapshotFile.write(file, "3\n");
+        // Damage that cuts the footer off
+        Files.writeString(file.toPath(), "3\n");
+        
+        assertFalse(SnapshotFile.hasFooter(file));
+        assertFalse(SnapshotFile.verify(file));
+        assertThrows(IOException.class, () -> SnapshotFile.readVerified(file));
+        assertNull(SnapshotFile.readVerified(tempDir.resolve("missing.txt").toFile()));
+    }
+}
@@ -0,0 +1,153 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for StockReservations and reserving carts
+ */
+public class StockReservationsTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private Inventory inventory;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        File inventoryFile = tempDir.resolve("inventory.txt").toFile();
+        Files.writeString(inventoryFile.toPath(), "Chips: 5, $1,99, $1,79, Taxable\n");
+        inventory = new Inventory(inventoryFile);
+    }
+    
+    @Test
+    void testHoldBlocksOtherCarts() {
+        Item chips = inventory.getItem("Chips");
+        Cart first = new Cart(false, false, inventory);
+        Cart second = new Cart(false, false, inventory);
+        
+        assertTrue(first.addItem(chips, 3));
+        assertEquals(2, chips.getAvailableQuantity());
+        assertEquals(5, chips.getQuantity());
+        assertFalse(second.addItem(chips, 3));
+        assertTrue(second.addItem(chips, 2));
+        assertFalse(first.addItem(chips, 1));
+        assertEquals(0, chips.getAvailableQuantity());
+    }
+    
+    @Test
+    void testRemoveAndClearReleaseHolds() {
+        Item chips = inventory.getItem("Chips");
+        Cart cart = new Cart(false, false, inventory);
+        cart.addItem(chips, 4);
+        
+        cart.removeItem("Chips", 1);
+        assertEquals(2, chips.getAvailableQuantity());
+        cart.clear();
+        assertEquals(5, chips.getAvailableQuantity());
+        assertEquals(0, inventory.getReservations().getActiveHoldCount());
+        
+        cart.addItem(chips, 2);
+        cart.removeItem("Chips", 2);
+        assertEquals(5, chips.getAvailableQuantity());
+    }
+    
+    @Test
+    void testHoldsExpire() throws InterruptedException {
+        StockReservations reservations = new StockReservations(50, TimeUnit.MILLISECONDS);
+        Item item = new Item("Soda", 4, new BigDecimal("1.00"), new BigDecimal("0.90"), true);
+        StockReservations.Hold hold = reservations.reserve(item, 4);
+        assertNotNull(hold);
+        assertNull(reservations.reserve(item, 1));
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (item.getAvailableQuantity() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(4, item.getAvailableQuantity());
+        assertEquals(0, reservations.getActiveHoldCount());
+    }
+    
+    @Test
+    void testResizeRestartsTtl() throws InterruptedException {
+        StockReservations reservations = new StockReservations(1000, TimeUnit.MILLISECONDS);
+        Item item = new Item("Soda", 4, new BigDecimal("1.00"), new BigDecimal("0.90"), true);
+        StockReservations.Hold hold = reservations.reserve(item, 1);
+        Thread.sleep(600);
+        assertTrue(reservations.resize(hold, 2));
+        Thread.sleep(600);
+        // The first deadline has passed but the resize pushed the hold's expiry out
+        assertEquals(2, item.getAvailableQuantity());
+    }
+    
+    @Test
+    void testResizesKeepOneTicketPerHold() {
+        StockReservations reservations = new StockReservations(1, TimeUnit.HOURS);
+        Item item = new Item("Soda", 4, new BigDecimal("1.00"), new BigDecimal("0.90"), true);
+        StockReservations.Hold hold = reservations.reserve(item, 1);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(reservations.resize(hold, 1 + i % 4));
+        }
+        reservations.release(hold);
+        assertTrue(reservations.resize(hold, 2));
+        
+        assertEquals(1, reservations.getQueuedTicketCount());
+        assertEquals(1, reservations.getActiveHoldCount());
+    }
+    
+    @Test
+    void testCheckoutConsumesHolds() {
+        Item chips = inventory.getItem("Chips");
+        Cart cart = new Cart(false, false, inventory);
+        cart.addItem(chips, 5);
+        assertEquals(0, chips.getAvailableQuantity());
+        
+        assertTrue(cart.updateInventory(inventory));
+        assertEquals(0, chips.getQuantity());
+        assertEquals(0, chips.getReservedQuantity());
+        assertEquals(0, inventory.getReservations().getActiveHoldCount());
+    }
+    
+    @Test
+    void testCancelledSaleHoldsStockAgain() {
+        Item chips = inventory.getItem("Chips");
+        Cart cart = new Cart(false, false, inventory);
+        cart.addItem(chips, 3);
+        assertTrue(cart.updateInventory(inventory));
+        
+        inventory.cancelSale(cart.getItems());
+        assertEquals(5, chips.getQuantity());
+        assertEquals(2, chips.getAvailableQuantity());
+        assertFalse(new Cart(false, false, inventory).addItem(chips, 3));
+        
+        assertTrue(cart.updateInventory(inventory));
+        assertEquals(2, chips.getQuantity());
+        assertEquals(0, inventory.getReservations().getActiveHoldCount());
+    }
+    
+    @Test
+    void testFailedCommitPutsEarlierLinesBack() {
+        Item chips = inventory.getItem("Chips");
+        Item soda = new Item("Soda", 1, new BigDecimal("1.00"), new BigDecimal("0.90"), true);
+        inventory.addItem(soda);
+        Cart cart = new Cart(false, false, inventory);
+        cart.addItem(chips, 4);
+        cart.addItem(soda, 1);
+        soda.setQuantity(0);
+        
+        assertFalse(cart.updateInventory(inventory));
+        assertEquals(5, chips.getQuantity());
+        assertEquals(1, chips.getAvailableQuantity());
+        cart.clear();
+        assertEquals(5, chips.getAvailableQuantity());
+    }
+}
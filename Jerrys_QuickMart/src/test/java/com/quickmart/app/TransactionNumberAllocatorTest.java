@@ -0,0 +1,135 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for TransactionNumberAllocator class
+ */
+public class TransactionNumberAllocatorTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private long storedMark(File file) throws IOException {
+        return Long.parseLong(SnapshotFile.readVerified(file).trim());
+    }
+    
+    @Test
+    void testNumbersAreReservedInBlocks() throws IOException {
+        File file = tempDir.resolve("transaction_counter.txt").toFile();
+        TransactionNumberAllocator allocator = new TransactionNumberAllocator(file, 1, 10);
+        
+        assertEquals(1, allocator.allocate());
+        assertEquals(11, storedMark(file)); // Block 1..10 reserved
+        for (int i = 2; i <= 10; i++) {
+            assertEquals(i, allocator.allocate());
+        }
+        assertEquals(11, storedMark(file)); // No rewrite inside the block
+        assertEquals(11, allocator.allocate());
+        assertEquals(21, storedMark(file));
+    }
+    
+    @Test
+    void testCrashResumesAtNextBlockAndCloseIsExact() throws IOException {
+        File file = tempDir.resolve("transaction_counter.txt").toFile();
+        TransactionNumberAllocator allocator = new TransactionNumberAllocator(file, 5, 10);
+        allocator.allocate();
+        allocator.allocate();
+        
+        // Simulated crash: a new allocator starts from the persisted mark
+        TransactionNumberAllocator restarted = new TransactionNumberAllocator(file, storedMark(file), 10);
+        assertEquals(15, restarted.allocate());
+        
+        restarted.close();
+        assertEquals(16, storedMark(file));
+    }
+    
+    @Test
+    void testAllocationFailsWhenTheMarkCannotBeSaved() throws IOException {
+        File file = tempDir.resolve("transaction_counter.txt").toFile();
+        TransactionNumberAllocator allocator = new TransactionNumberAllocator(file, 1, 2);
+        assertEquals(1, allocator.allocate());
+        assertEquals(2, allocator.allocate());
+        
+        // A directory in the way of the temp file makes the next write fail
+        File blocker = tempDir.resolve("transaction_counter.txt.tmp").toFile();
+        assertTrue(blocker.mkdir());
+        assertThrows(IllegalStateException.class, allocator::allocate);
+        assertThrows(IllegalStateException.class, allocator::allocate);
+        assertEquals(3, storedMark(file)); // Nothing past the persisted mark was handed out
+        
+        assertTrue(blocker.delete());
+        long next = allocator.allocate();
+        assertTrue(next >= 3);
+        assertTrue(storedMark(file) > next);
+    }
+    
+    @Test
+    void testCloseWhileLanesAllocateNeverLowersTheMark() throws Exception {
+        File file = tempDir.resolve("transaction_counter.txt").toFile();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int round = 0; round < 200; round++) {
+            TransactionNumberAllocator allocator = new TransactionNumberAllocator(file, 1, 1000);
+            AtomicLong highestIssued = new AtomicLong();
+            AtomicBoolean stop = new AtomicBoolean();
+            List<Future<?>> lanes = new ArrayList<>();
+            for (int lane = 0; lane < 4; lane++) {
+                lanes.add(executor.submit(() -> {
+                    while (!stop.get()) {
+                        long number = allocator.allocate();
+                        highestIssued.accumulateAndGet(number, Math::max);
+                    }
+                }));
+            }
+            while (highestIssued.get() < 100) {
+                Thread.onSpinWait();
+            }
+            allocator.close(); // Shutdown hook while lanes still check out
+            long issued = highestIssued.get();
+            // A restart resumes at the stored mark: it must be past every number handed out so far
+            assertTrue(storedMark(file) > issued, "Round " + round);
+            stop.set(true);
+            for (Future<?> lane : lanes) {
+                lane.get();
+            }
+        }
+        executor.shutdown();
+    }
+    
+    @Test
+    void testConcurrentAllocationIsUnique() throws Exception {
+        File file = tempDir.resolve("transaction_counter.txt").toFile();
+        TransactionNumberAllocator allocator = new TransactionNumberAllocator(file, 1, 50);
+        int threads = 8;
+        int perThread = 2000;
+        Set<Long> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    assertTrue(numbers.add(allocator.allocate()));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        
+        assertEquals(threads * perThread, numbers.size());
+        assertTrue(storedMark(file) > threads * perThread); // Every issued number is covered
+    }
+}
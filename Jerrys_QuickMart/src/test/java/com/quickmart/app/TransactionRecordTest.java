@@ -0,0 +1,96 @@
+package com.quickmart.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for TransactionRecord and TransactionRecordLog classes
+ */
+public class TransactionRecordTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testEncodeAndRead() {
+        Cart cart = new Cart(true);
+        Item redBull = new Item("Red Bull", 10, new BigDecimal("4.30"), new BigDecimal("4.00"), true);
+        redBull.setId(7);
+        cart.addItem(redBull, 3);
+        cart.addItem(new Item("Crème brûlée", 5, new BigDecimal("3.10"), new BigDecimal("2.75"), false), 1);
+        Receipt receipt = new Receipt(42, cart, new BigDecimal("20.00"));
+        
+        TransactionRecord record = new TransactionRecord().wrap(ByteBuffer.wrap(TransactionRecord.encode(receipt)), 0);
+        
+        assertEquals(TransactionRecord.VERSION, record.getVersion());
+        assertEquals(42, record.getTransactionNumber());
+        assertTrue(record.isMember());
+        assertEquals(receipt.getDateTime().withNano(receipt.getDateTime().getNano() / 1_000_000 * 1_000_000),
+            record.getDateTime());
+        assertEquals(1475, record.getSubtotalCents());
+        assertEquals(78, record.getTaxCents());
+        assertEquals(1553, record.getTotalCents());
+        assertEquals(2000, record.getCashCents());
+        assertEquals(447, record.getChangeCents());
+        assertEquals(125, record.getMemberSavingsCents());
+        assertEquals(4, record.getTotalItems());
+        assertEquals(2, record.getLineCount());
+        assertEquals("Red Bull", record.getName(0));
+        assertEquals(400, record.getUnitPriceCents(0));
+        assertEquals(3, record.getQuantity(0));
+        assertTrue(record.isTaxable(0));
+        assertEquals(7, record.getSkuId(0));
+        assertEquals("Crème brûlée", record.getName(1));
+        assertEquals(-1, record.getSkuId(1));
+        assertFalse(record.isTaxable(1));
+    }
+    
+    @Test
+    void testScanSkipsTornRecord() throws IOException {
+        TransactionRecordLog log = new TransactionRecordLog(tempDir.toFile());
+        Receipt first = ReceiptWriterTest.receipt(1);
+        log.append(first);
+        log.append(ReceiptWriterTest.receipt(2));
+        log.close();
+        
+        // Simulate a crash halfway through a third record
+        File file = log.fileFor(first.getDateTime().toLocalDate());
+        byte[] third = TransactionRecord.encode(ReceiptWriterTest.receipt(3));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.write(third, 0, third.length / 2);
+        }
+        assertEquals(List.of(1, 2), scanNumbers(file));
+        
+        // The torn tail is cut off before the next append
+        log.append(ReceiptWriterTest.receipt(4));
+        log.close();
+        assertEquals(List.of(1, 2, 4), scanNumbers(file));
+    }
+    
+    @Test
+    void testJournalWritesRecordsAlongsideReceipts() throws IOException {
+        Receipt receipt = ReceiptWriterTest.receipt(7);
+        try (ReceiptJournal journal = new ReceiptJournal(tempDir.toFile(), ReceiptJournal.DEFAULT_SEGMENT_BYTES)) {
+            journal.append(receipt, receipt.generateReceiptContent());
+        }
+        File file = new TransactionRecordLog(tempDir.toFile()).fileFor(receipt.getDateTime().toLocalDate());
+        assertEquals(List.of(7), scanNumbers(file));
+    }
+    
+    private List<Integer> scanNumbers(File file) throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        TransactionRecordLog.scan(file, record -> numbers.add(record.getTransactionNumber()));
+        return numbers;
+    }
+}